@@ -0,0 +1,395 @@
+import java.awt.GraphicsEnvironment;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Uma bancada de medição de desempenho para os pontos mais executados da
+ * simulação: o passo do simulador, as consultas de vizinhança do campo,
+ * as ações de coelhos e raposas, a contagem das estatísticas e a
+ * pintura da visão.
+ *
+ * Cada cenário é executado em vários tamanhos de grade (do tamanho padrão,
+ * 80x120, até 4000x4000) e várias densidades de população. Para cada um são
+ * informadas a vazão (operações por segundo), o tempo médio por operação e
+ * a taxa de alocação (bytes alocados por operação), medida pela soma dos
+ * contadores de alocação de todas as threads, de modo que inclui o que as
+ * threads do passo paralelo alocam.
+ *
+ * Uso: java BancadaDesempenho [segundosPorCenario] [maiorLado]
+ * Por exemplo, "java BancadaDesempenho 1 1000" mede cada cenário por um
+ * segundo e ignora as grades com lado maior que 1000.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class BancadaDesempenho
+{
+    // Os tamanhos de grade medidos (comprimento, largura).
+    private static final int[][] TAMANHOS = {
+        { 80, 120 }, { 500, 500 }, { 1000, 1000 }, { 4000, 4000 }
+    };
+    // As densidades de população (fração das posições ocupadas) medidas.
+    private static final double[] DENSIDADES = { 0.05, 0.1, 0.3 };
+    // A fração dos animais criados que são raposas.
+    private static final double FRACAO_RAPOSAS = 0.2;
+    // O número de consultas de vizinhança feitas em cada rodada.
+    private static final int CONSULTAS_POR_RODADA = 10000;
+    // O tempo de aquecimento como fração do tempo de medição.
+    private static final double FRACAO_AQUECIMENTO = 0.5;
+
+    // Acumula os resultados das operações para que não sejam descartados pelo compilador.
+    private static long sorvedouro;
+
+    /**
+     * Um cenário de medição. A preparação é executada antes de cada
+     * rodada e não entra na medição.
+     */
+    private interface Cenario
+    {
+        /**
+         * Prepara uma rodada da medição.
+         */
+        void preparar();
+
+        /**
+         * Executa uma rodada da medição.
+         * @return O número de operações executadas na rodada.
+         */
+        long executar();
+    }
+
+    /**
+     * Executa todos os cenários.
+     * @param args Opcionalmente, os segundos de medição por cenário e o maior lado de grade a medir.
+     */
+    public static void main(String[] args)
+    {
+        double segundos = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+        int maiorLado = args.length > 1 ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+        long tempoMedicao = (long) (segundos * 1e9);
+
+        System.out.println(String.format("%-40s %-18s %14s %12s %12s",
+                "Cenário", "Grade", "ops/s", "ns/op", "B/op"));
+        for(int[] tamanho : TAMANHOS) {
+            int comprimento = tamanho[0];
+            int largura = tamanho[1];
+            if(Math.max(comprimento, largura) > maiorLado) {
+                continue;
+            }
+            medirPasso(comprimento, largura, tempoMedicao);
+            for(double densidade : DENSIDADES) {
+                medirCampo(comprimento, largura, densidade, tempoMedicao);
+            }
+        }
+        System.out.println("(sorvedouro: " + sorvedouro + ")");
+    }
+
+    /**
+     * Mede o passo completo do simulador, com as probabilidades de criação padrão,
+     * usando uma thread e, se houver mais de um processador, todos eles.
+     */
+    private static void medirPasso(int comprimento, int largura, long tempoMedicao)
+    {
+        medirPasso(comprimento, largura, 1, tempoMedicao);
+        int processadores = Runtime.getRuntime().availableProcessors();
+        if(processadores > 1) {
+            medirPasso(comprimento, largura, processadores, tempoMedicao);
+        }
+    }
+
+    /**
+     * Mede o passo completo do simulador com o número de threads fornecido.
+     */
+    private static void medirPasso(int comprimento, int largura, int numThreads, long tempoMedicao)
+    {
+        Simulador simulador = new Simulador(comprimento, largura);
+        simulador.definirParalelismo(numThreads);
+        String nome = "Simulador.simularUmPasso";
+        if(numThreads > 1) {
+            nome += " (" + numThreads + " threads)";
+        }
+        medir(nome, descrever(comprimento, largura, -1), tempoMedicao, new Cenario() {
+            public void preparar()
+            {
+                if(!simulador.ehViavel()) {
+                    simulador.reiniciar();
+                }
+            }
+
+            public long executar()
+            {
+                simulador.simularUmPasso();
+                return 1;
+            }
+        });
+        simulador.encerrar();
+    }
+
+    /**
+     * Mede as operações sobre um campo povoado com a densidade fornecida.
+     */
+    private static void medirCampo(int comprimento, int largura, double densidade, long tempoMedicao)
+    {
+        String grade = descrever(comprimento, largura, densidade);
+        Campo campo = new Campo(comprimento, largura);
+        List<Coelho> coelhos = new ArrayList<>();
+        List<Raposa> raposas = new ArrayList<>();
+        povoar(campo, densidade, coelhos, raposas);
+        Localizacao[] consultas = sortearLocalizacoes(campo);
+
+        medir("Campo.localizacoesVizinhas", grade, tempoMedicao, new Cenario() {
+            public void preparar()
+            {
+            }
+
+            public long executar()
+            {
+                for(Localizacao localizacao : consultas) {
+                    sorvedouro += campo.localizacoesVizinhas(localizacao).size();
+                }
+                return consultas.length;
+            }
+        });
+
+        medir("Campo.localizacoesVizinhasLivres", grade, tempoMedicao, new Cenario() {
+            public void preparar()
+            {
+            }
+
+            public long executar()
+            {
+                for(Localizacao localizacao : consultas) {
+                    sorvedouro += campo.localizacoesVizinhasLivres(localizacao).size();
+                }
+                return consultas.length;
+            }
+        });
+
+        int[] indices = new int[consultas.length];
+        for(int i = 0; i < consultas.length; i++) {
+            indices[i] = campo.obterIndice(consultas[i]);
+        }
+        int[] vizinhas = new int[Campo.MAXIMO_VIZINHOS];
+        medir("Campo.localizacoesVizinhas(int[])", grade, tempoMedicao, new Cenario() {
+            public void preparar()
+            {
+            }
+
+            public long executar()
+            {
+                for(int indice : indices) {
+                    sorvedouro += campo.localizacoesVizinhas(indice, vizinhas);
+                }
+                return indices.length;
+            }
+        });
+
+        medir("Campo.localizacoesVizinhasLivres(int[])", grade, tempoMedicao, new Cenario() {
+            public void preparar()
+            {
+            }
+
+            public long executar()
+            {
+                for(int indice : indices) {
+                    sorvedouro += campo.localizacoesVizinhasLivres(indice, vizinhas);
+                }
+                return indices.length;
+            }
+        });
+
+        EstatisticasCampo estatisticas = new EstatisticasCampo();
+        medir("EstatisticasCampo.ehViavel", grade, tempoMedicao, new Cenario() {
+            public void preparar()
+            {
+                estatisticas.reiniciar();
+            }
+
+            public long executar()
+            {
+                // ehViavel obtém novamente as contagens do campo, pois elas foram invalidadas.
+                sorvedouro += estatisticas.ehViavel(campo) ? 1 : 0;
+                return 1;
+            }
+        });
+
+        if(!GraphicsEnvironment.isHeadless()) {
+            VisaoSimulador visao = new VisaoSimulador(comprimento, largura, null);
+            // Sem limite de quadros, cada chamada publica um quadro, que é o que se quer medir.
+            visao.definirTaxaQuadros(Integer.MAX_VALUE);
+            medir("VisaoSimulador.mostrarStatus", grade, tempoMedicao, new Cenario() {
+                public void preparar()
+                {
+                }
+
+                public long executar()
+                {
+                    visao.mostrarStatus(0, campo);
+                    return 1;
+                }
+            });
+            visao.dispose();
+        }
+
+        medir("Coelho.correr", grade, tempoMedicao, new Cenario() {
+            private List<Coelho> ativos = new ArrayList<>();
+
+            public void preparar()
+            {
+                repovoar(campo, densidade, coelhos, raposas);
+                ativos.clear();
+                ativos.addAll(coelhos);
+            }
+
+            public long executar()
+            {
+                List<Coelho> novosCoelhos = new ArrayList<>();
+                for(Coelho coelho : ativos) {
+                    coelho.correr(novosCoelhos);
+                }
+                sorvedouro += novosCoelhos.size();
+                return ativos.size();
+            }
+        });
+
+        medir("Raposa.cacar", grade, tempoMedicao, new Cenario() {
+            private List<Raposa> ativas = new ArrayList<>();
+
+            public void preparar()
+            {
+                repovoar(campo, densidade, coelhos, raposas);
+                ativas.clear();
+                ativas.addAll(raposas);
+            }
+
+            public long executar()
+            {
+                List<Raposa> novasRaposas = new ArrayList<>();
+                for(Raposa raposa : ativas) {
+                    raposa.cacar(novasRaposas);
+                }
+                sorvedouro += novasRaposas.size();
+                return ativas.size();
+            }
+        });
+        campo.limpar();
+    }
+
+    /**
+     * Executa um cenário pelo tempo de aquecimento e depois pelo tempo de
+     * medição, e imprime o resultado.
+     * @param nome O nome do cenário.
+     * @param grade A descrição da grade e da densidade.
+     * @param tempoMedicao O tempo de medição, em nanossegundos.
+     * @param cenario O cenário a ser medido.
+     */
+    private static void medir(String nome, String grade, long tempoMedicao, Cenario cenario)
+    {
+        executarRodadas(cenario, (long) (tempoMedicao * FRACAO_AQUECIMENTO));
+        long[] resultado = executarRodadas(cenario, tempoMedicao);
+        long operacoes = Math.max(resultado[0], 1);
+        double nanos = resultado[1];
+        System.out.println(String.format("%-40s %-18s %14.1f %12.1f %12.1f",
+                nome, grade, operacoes * 1e9 / nanos, nanos / operacoes,
+                (double) resultado[2] / operacoes));
+    }
+
+    /**
+     * Executa rodadas de um cenário até que o tempo medido atinja o tempo fornecido.
+     * Sempre executa pelo menos uma rodada.
+     * @return O número de operações, o tempo medido (ns) e os bytes alocados.
+     */
+    private static long[] executarRodadas(Cenario cenario, long tempo)
+    {
+        long operacoes = 0;
+        long nanos = 0;
+        long bytes = 0;
+        do {
+            cenario.preparar();
+            long bytesAntes = bytesAlocados();
+            long inicio = System.nanoTime();
+            operacoes += cenario.executar();
+            nanos += System.nanoTime() - inicio;
+            bytes += bytesAlocados() - bytesAntes;
+        } while(nanos < tempo);
+        return new long[] { operacoes, nanos, bytes };
+    }
+
+    /**
+     * @return O total de bytes alocados até agora pelas threads vivas.
+     */
+    private static long bytesAlocados()
+    {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for(long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            // Uma thread que terminou enquanto era consultada tem o valor -1.
+            if(bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Povoa o campo aleatoriamente com a densidade fornecida.
+     */
+    private static void povoar(Campo campo, double densidade, List<Coelho> coelhos, List<Raposa> raposas)
+    {
+        Random rand = Randomizador.obterRandom();
+        for(int linha = 0; linha < campo.obterComprimento(); linha++) {
+            for(int coluna = 0; coluna < campo.obterLargura(); coluna++) {
+                if(rand.nextDouble() <= densidade) {
+                    Localizacao localizacao = new Localizacao(linha, coluna);
+                    if(rand.nextDouble() <= FRACAO_RAPOSAS) {
+                        raposas.add(new Raposa(true, campo, localizacao));
+                    }
+                    else {
+                        coelhos.add(new Coelho(true, campo, localizacao));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Esvazia o campo e o povoa novamente.
+     */
+    private static void repovoar(Campo campo, double densidade, List<Coelho> coelhos, List<Raposa> raposas)
+    {
+        campo.limpar();
+        coelhos.clear();
+        raposas.clear();
+        povoar(campo, densidade, coelhos, raposas);
+    }
+
+    /**
+     * @return Localizações aleatórias do campo, usadas nas consultas de vizinhança.
+     */
+    private static Localizacao[] sortearLocalizacoes(Campo campo)
+    {
+        Random rand = new Random(campo.obterComprimento() * 31 + campo.obterLargura());
+        Localizacao[] localizacoes = new Localizacao[CONSULTAS_POR_RODADA];
+        for(int i = 0; i < localizacoes.length; i++) {
+            localizacoes[i] = new Localizacao(rand.nextInt(campo.obterComprimento()),
+                                              rand.nextInt(campo.obterLargura()));
+        }
+        return localizacoes;
+    }
+
+    /**
+     * @return Uma descrição da grade e, se fornecida, da densidade.
+     */
+    private static String descrever(int comprimento, int largura, double densidade)
+    {
+        String grade = comprimento + "x" + largura;
+        if(densidade >= 0) {
+            grade += " d=" + densidade;
+        }
+        return grade;
+    }
+}
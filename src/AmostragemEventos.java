@@ -0,0 +1,90 @@
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.SettingControl;
+
+/**
+ * Uma configuração do Java Flight Recorder que registra apenas um a cada
+ * N eventos de um tipo, para eventos frequentes demais para serem todos
+ * gravados (como os nascimentos e as mortes de animais). O valor é o
+ * número N; por exemplo, "1" registra todos os eventos.
+ *
+ * O valor padrão pode ser escolhido ao iniciar a JVM, com a propriedade
+ * -Draposasecoelhos.amostragem=10. Uma gravação também pode escolher o
+ * seu valor, como em
+ * recording.enable("raposasecoelhos.Morte").with("amostragem", "10")
+ * (o nome da configuração é o do método anotado com SettingDefinition).
+ * No JDK 17, a opção -XX:StartFlightRecording não aceita essa configuração,
+ * pois ela é lida antes que as classes dos eventos sejam carregadas.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class AmostragemEventos extends SettingControl
+{
+    // A propriedade do sistema com o intervalo padrão.
+    public static final String PROPRIEDADE = "raposasecoelhos.amostragem";
+    // Quantos eventos há para cada evento registrado, se nada for configurado.
+    private static final int INTERVALO_PADRAO = converter(System.getProperty(PROPRIEDADE, "100"), 100);
+
+    // Quantos eventos há para cada evento registrado.
+    private volatile int intervalo;
+    // Quantos eventos ocorreram.
+    private final AtomicLong eventos;
+
+    /**
+     * Cria a configuração com o intervalo padrão.
+     */
+    public AmostragemEventos()
+    {
+        intervalo = INTERVALO_PADRAO;
+        eventos = new AtomicLong();
+    }
+
+    /**
+     * Combina as configurações de várias gravações simultâneas, ficando
+     * com o menor intervalo (isto é, com a gravação mais detalhada).
+     */
+    public String combine(Set<String> valores)
+    {
+        int menor = Integer.MAX_VALUE;
+        for(String valor : valores) {
+            menor = Math.min(menor, converter(valor, Integer.MAX_VALUE));
+        }
+        return String.valueOf(menor == Integer.MAX_VALUE ? INTERVALO_PADRAO : menor);
+    }
+
+    public void setValue(String valor)
+    {
+        intervalo = converter(valor, intervalo);
+    }
+
+    public String getValue()
+    {
+        return String.valueOf(intervalo);
+    }
+
+    /**
+     * Conta um evento e indica se ele deve ser registrado.
+     * @return Verdadeiro para o primeiro evento de cada intervalo.
+     */
+    public boolean aceitar()
+    {
+        return eventos.getAndIncrement() % intervalo == 0;
+    }
+
+    /**
+     * @return O intervalo descrito pelo valor, ou o padrão fornecido se o
+     *         valor não for um número maior que zero.
+     */
+    private static int converter(String valor, int padrao)
+    {
+        try {
+            int numero = Integer.parseInt(valor.trim());
+            return numero > 0 ? numero : padrao;
+        }
+        catch(NumberFormatException e) {
+            return padrao;
+        }
+    }
+}
@@ -1,5 +1,17 @@
+import java.awt.Color;
+
 public class App {
     public static void main(String[] args) throws Exception {
-        new Simulador();
+        Simulador simulador = new Simulador();
+        Campo campo = simulador.obterCampo();
+
+        // Cria uma visão do estado de cada localização no campo.
+        VisaoSimulador visao = new VisaoSimulador(campo.obterComprimento(), campo.obterLargura(), simulador);
+        visao.definirCor(Coelho.class, Color.ORANGE);
+        visao.definirCor(Raposa.class, Color.BLUE);
+        simulador.adicionarObservador(visao);
+
+        // Exibe as métricas da simulação por JMX (por exemplo, no JConsole).
+        simulador.obterMetricas().registrar("App");
     }
 }
@@ -0,0 +1,393 @@
+import java.util.Arrays;
+
+/**
+ * Armazena os animais de uma espécie que estão no campo. O estado de cada
+ * animal (idade, nível de comida, localização e se está vivo) fica em
+ * vetores de tipos primitivos, indexados pelo identificador do animal.
+ * Os objetos Coelho e Raposa são apenas visões sobre esse estado: eles
+ * guardam somente o identificador e o campo.
+ *
+ * Os identificadores de animais que deixam o campo são reaproveitados por
+ * novos animais, de modo que os vetores permanecem densos.
+ *
+ * Registrar e liberar animais pode ser feito por várias threads ao mesmo
+ * tempo (veja PassoParalelo), desde que a capacidade tenha sido reservada
+ * antes com o método reservar e que cada animal seja manipulado por uma
+ * única thread.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class ArmazemAnimais
+{
+    // Valor usado no lugar de um identificador quando não há animal.
+    public static final int NENHUM = -1;
+    // A capacidade inicial do armazém.
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    // As visões (objetos Coelho ou Raposa), indexadas pelos identificadores.
+    private Object[] animais;
+    // A idade de cada animal.
+    private int[] idades;
+    // O nível de comida de cada animal.
+    private int[] niveisComida;
+    // O índice da localização de cada animal no campo.
+    private int[] localizacoes;
+    // Indica se cada identificador pertence a um animal vivo.
+    private boolean[] vivos;
+    // A última rodada em que cada animal agiu (veja marcarAcao).
+    private int[] rodadas;
+    // A rodada atual.
+    private int rodadaAtual;
+    // Os identificadores liberados, disponíveis para reaproveitamento.
+    private int[] livres;
+    // Quantos identificadores liberados existem.
+    private int numLivres;
+    // O próximo identificador ainda nunca usado.
+    private int proximo;
+    // Visões de animais mortos devolvidas pela simulação, que podem ser
+    // reaproveitadas por recém-nascidos (veja devolver).
+    private Object[] reserva;
+    // Quantas visões há na reserva.
+    private int tamanhoReserva;
+    // Quantos animais foram registrados, liberados e liberados por terem sido
+    // comidos desde a criação do armazém (veja GravadorSerieTemporal).
+    private long totalRegistrados;
+    private long totalLiberados;
+    private long totalPredados;
+
+    /**
+     * Cria um armazém vazio.
+     */
+    public ArmazemAnimais()
+    {
+        animais = new Object[CAPACIDADE_INICIAL];
+        idades = new int[CAPACIDADE_INICIAL];
+        niveisComida = new int[CAPACIDADE_INICIAL];
+        localizacoes = new int[CAPACIDADE_INICIAL];
+        vivos = new boolean[CAPACIDADE_INICIAL];
+        rodadas = new int[CAPACIDADE_INICIAL];
+        rodadaAtual = 0;
+        livres = new int[CAPACIDADE_INICIAL];
+        numLivres = 0;
+        proximo = 0;
+        reserva = new Object[CAPACIDADE_INICIAL];
+        tamanhoReserva = 0;
+        totalRegistrados = 0;
+        totalLiberados = 0;
+        totalPredados = 0;
+    }
+
+    /**
+     * Registra um animal vivo no armazém, com idade e nível de comida zero
+     * e ainda sem localização. O animal conta como já tendo agido na
+     * rodada atual.
+     * @param animal A visão do animal a ser registrado.
+     * @return O identificador do animal.
+     */
+    public synchronized int registrar(Object animal)
+    {
+        int id;
+        if(numLivres > 0) {
+            numLivres--;
+            id = livres[numLivres];
+        }
+        else {
+            id = proximo++;
+            if(id == animais.length) {
+                aumentarCapacidade();
+            }
+        }
+        animais[id] = animal;
+        idades[id] = 0;
+        niveisComida[id] = 0;
+        localizacoes[id] = Campo.NENHUMA;
+        vivos[id] = true;
+        rodadas[id] = rodadaAtual;
+        totalRegistrados++;
+        return id;
+    }
+
+    /**
+     * Libera o identificador de um animal que deixou o campo.
+     * @param id O identificador a ser liberado.
+     */
+    public void liberar(int id)
+    {
+        liberar(id, false);
+    }
+
+    /**
+     * Libera o identificador de um animal que deixou o campo, indicando se
+     * ele deixou o campo por ter sido comido.
+     * @param id O identificador a ser liberado.
+     * @param predado Se verdadeiro, o animal foi comido por um predador.
+     */
+    public synchronized void liberar(int id, boolean predado)
+    {
+        animais[id] = null;
+        vivos[id] = false;
+        localizacoes[id] = Campo.NENHUMA;
+        if(numLivres == livres.length) {
+            livres = Arrays.copyOf(livres, livres.length * 2);
+        }
+        livres[numLivres++] = id;
+        totalLiberados++;
+        if(predado) {
+            totalPredados++;
+        }
+    }
+
+    /**
+     * Guarda a visão de um animal morto para que ela seja reaproveitada por
+     * um recém-nascido (veja retirar). Quem devolve a visão deve ser o seu
+     * único dono: o animal já morreu e nenhuma lista ou objeto da simulação
+     * guarda mais uma referência a ele. A reserva nunca fica maior que o
+     * número de animais vivos (ou que a capacidade inicial); as visões que
+     * não couberem são descartadas.
+     * @param animal A visão do animal morto.
+     */
+    public synchronized void devolver(Object animal)
+    {
+        if(tamanhoReserva < Math.max(CAPACIDADE_INICIAL, obterQuantidade())) {
+            if(tamanhoReserva == reserva.length) {
+                reserva = Arrays.copyOf(reserva, reserva.length * 2);
+            }
+            reserva[tamanhoReserva++] = animal;
+        }
+    }
+
+    /**
+     * Retira uma visão da reserva de animais mortos. Quem a retira passa a
+     * ser o seu dono e deve reiniciá-la por completo antes de usá-la.
+     * @return A visão, ou null se a reserva estiver vazia.
+     */
+    public synchronized Object retirar()
+    {
+        if(tamanhoReserva == 0) {
+            return null;
+        }
+        Object animal = reserva[--tamanhoReserva];
+        reserva[tamanhoReserva] = null;
+        return animal;
+    }
+
+    /**
+     * Descarta todas as visões da reserva de animais mortos.
+     */
+    public synchronized void esvaziarReserva()
+    {
+        Arrays.fill(reserva, 0, tamanhoReserva, null);
+        tamanhoReserva = 0;
+    }
+
+    /**
+     * Retorna o animal com o identificador fornecido.
+     * @param id O identificador do animal.
+     * @return O animal, ou null se o identificador não estiver em uso.
+     */
+    public Object obterAnimal(int id)
+    {
+        return animais[id];
+    }
+
+    /**
+     * @param id O identificador do animal.
+     * @return Se o identificador pertence a um animal vivo.
+     */
+    public boolean estaVivo(int id)
+    {
+        return vivos[id];
+    }
+
+    /**
+     * @param id O identificador do animal.
+     * @return A idade do animal.
+     */
+    public int obterIdade(int id)
+    {
+        return idades[id];
+    }
+
+    /**
+     * @param id O identificador do animal.
+     * @param idade A nova idade do animal.
+     */
+    public void definirIdade(int id, int idade)
+    {
+        idades[id] = idade;
+    }
+
+    /**
+     * Aumenta a idade de um animal em um.
+     * @param id O identificador do animal.
+     * @return A nova idade do animal.
+     */
+    public int incrementarIdade(int id)
+    {
+        return ++idades[id];
+    }
+
+    /**
+     * @param id O identificador do animal.
+     * @return O nível de comida do animal.
+     */
+    public int obterNivelComida(int id)
+    {
+        return niveisComida[id];
+    }
+
+    /**
+     * @param id O identificador do animal.
+     * @param nivelComida O novo nível de comida do animal.
+     */
+    public void definirNivelComida(int id, int nivelComida)
+    {
+        niveisComida[id] = nivelComida;
+    }
+
+    /**
+     * Diminui o nível de comida de um animal em um.
+     * @param id O identificador do animal.
+     * @return O novo nível de comida do animal.
+     */
+    public int decrementarNivelComida(int id)
+    {
+        return --niveisComida[id];
+    }
+
+    /**
+     * @param id O identificador do animal.
+     * @return O índice da localização do animal, ou Campo.NENHUMA.
+     */
+    public int obterLocalizacao(int id)
+    {
+        return localizacoes[id];
+    }
+
+    /**
+     * @param id O identificador do animal.
+     * @param localizacao O índice da nova localização do animal.
+     */
+    public void definirLocalizacao(int id, int localizacao)
+    {
+        localizacoes[id] = localizacao;
+    }
+
+    /**
+     * Inicia uma nova rodada. Nenhum animal agiu ainda na nova rodada.
+     */
+    public void iniciarRodada()
+    {
+        rodadaAtual++;
+    }
+
+    /**
+     * Marca que um animal agiu na rodada atual.
+     * @param id O identificador do animal.
+     * @return true se o animal ainda não tinha agido na rodada atual.
+     */
+    public boolean marcarAcao(int id)
+    {
+        if(rodadas[id] == rodadaAtual) {
+            return false;
+        }
+        rodadas[id] = rodadaAtual;
+        return true;
+    }
+
+    /**
+     * Garante que os vetores comportem o registro de mais animais sem
+     * precisarem ser aumentados. Deve ser chamado antes de registrar
+     * animais a partir de várias threads.
+     * @param quantidade Quantos novos animais poderão ser registrados.
+     * @param maximo O número máximo de animais que o armazém pode precisar guardar.
+     */
+    public void reservar(int quantidade, int maximo)
+    {
+        int necessario = (int) Math.min((long) proximo + quantidade, maximo);
+        if(necessario > animais.length) {
+            redimensionar(necessario);
+        }
+    }
+
+    /**
+     * Retorna o limite superior dos identificadores em uso. Todos os
+     * animais vivos têm identificadores entre zero e este valor
+     * (exclusive); use estaVivo para ignorar os identificadores livres.
+     * @return O limite superior dos identificadores.
+     */
+    public int obterLimite()
+    {
+        return proximo;
+    }
+
+    /**
+     * @return Quantos animais vivos há no armazém.
+     */
+    public int obterQuantidade()
+    {
+        return proximo - numLivres;
+    }
+
+    /**
+     * @return Quantos animais foram registrados desde a criação do armazém.
+     */
+    public long obterTotalRegistrados()
+    {
+        return totalRegistrados;
+    }
+
+    /**
+     * @return Quantos animais foram liberados desde a criação do armazém.
+     */
+    public long obterTotalLiberados()
+    {
+        return totalLiberados;
+    }
+
+    /**
+     * @return Quantos animais foram liberados por terem sido comidos desde a
+     *         criação do armazém.
+     */
+    public long obterTotalPredados()
+    {
+        return totalPredados;
+    }
+
+    /**
+     * Remove todos os animais do armazém e esvazia a reserva de animais
+     * mortos. Os totais de animais registrados e liberados não são alterados.
+     */
+    public void limpar()
+    {
+        esvaziarReserva();
+        Arrays.fill(animais, 0, proximo, null);
+        Arrays.fill(vivos, 0, proximo, false);
+        numLivres = 0;
+        proximo = 0;
+    }
+
+    /**
+     * Dobra a capacidade de todos os vetores.
+     */
+    private void aumentarCapacidade()
+    {
+        redimensionar(animais.length * 2);
+    }
+
+    /**
+     * Altera a capacidade de todos os vetores.
+     * @param capacidade A nova capacidade.
+     */
+    private void redimensionar(int capacidade)
+    {
+        animais = Arrays.copyOf(animais, capacidade);
+        idades = Arrays.copyOf(idades, capacidade);
+        niveisComida = Arrays.copyOf(niveisComida, capacidade);
+        localizacoes = Arrays.copyOf(localizacoes, capacidade);
+        vivos = Arrays.copyOf(vivos, capacidade);
+        rodadas = Arrays.copyOf(rodadas, capacidade);
+    }
+}
@@ -1,47 +1,148 @@
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Representa uma grade retangular de posições no campo.
  * Cada posição pode armazenar um único animal.
  * 
+ * Internamente, o campo guarda para cada posição apenas o código da espécie
+ * do animal que a ocupa e o identificador desse animal no armazém da sua
+ * espécie, em uma grade (veja GradeCampo). A grade padrão é densa, de modo
+ * que verificar se uma posição está livre ou qual espécie a ocupa é apenas
+ * a leitura de um vetor de bytes; campos enormes e pouco povoados podem
+ * usar uma grade em ladrilhos, que ocupa memória apenas onde há animais,
+ * e campos enormes e cheios podem usar uma grade fora do heap, em memória
+ * direta ou em um arquivo mapeado (veja TipoGrade).
+ * 
+ * O campo também registra quais posições foram alteradas (por colocar ou
+ * limpar) desde a última chamada a limparAlteracoes. Assim, quem exibe ou
+ * exporta o campo pode tratar apenas as posições alteradas (veja
+ * proximaAlterada).
+ * 
  * @author David J. Barnes e Michael Kölling
  *  Traduzido por Julio César Alves
  * @version 2025.05.24
  */
 public class Campo
 {
-    // Um gerador de números aleatórios para fornecer localizações aleatórias.
-    private static final Random rand = Randomizador.obterRandom();
+    // O número máximo de localizações vizinhas de uma localização.
+    public static final int MAXIMO_VIZINHOS = 8;
+    // Valor usado no lugar de um índice quando não há localização.
+    public static final int NENHUMA = -1;
+    // O maior raio em que um animal pode perceber outros (veja procurarMaisProxima).
+    public static final int RAIO_MAXIMO = 256;
+    
+    // Os deslocamentos de linha e de coluna das localizações vizinhas, na ordem
+    // em que elas são geradas antes de serem embaralhadas.
+    private static final int[] DESLOCAMENTOS_LINHA = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private static final int[] DESLOCAMENTOS_COLUNA = { -1, 0, 1, -1, 1, -1, 0, 1 };
     
     // O comprimento e a largura do campo.
     private int comprimento, largura;
-    // Armazenamento para os animais.
-    private Object[][] campo;
+    // O código da espécie e o identificador do animal em cada posição,
+    // indexados por linha * largura + coluna.
+    private GradeCampo grade;
+    // Os armazéns dos animais, indexados pelo código da espécie.
+    private ArmazemAnimais[] armazens;
+    // As localizações canônicas, uma por índice, criadas quando pedidas pela
+    // primeira vez, ou null se a grade não for densa.
+    private Localizacao[] localizacoes;
+    // Os deslocamentos das localizações vizinhas em termos de índices (linha * largura + coluna).
+    private int[] deslocamentosIndice;
+    // O gerador de números aleatórios usado quando nenhum outro é fornecido.
+    private RandomGenerator rand;
+    // Os parâmetros do modelo seguidos pelos animais deste campo.
+    private ParametrosSimulacao parametros;
+    // As métricas da simulação que usa este campo.
+    private MetricasSimulacao metricas;
+    // Quantos animais de cada espécie há em cada bloco do campo, ou null se
+    // nenhum animal perceber outros além das suas vizinhas.
+    private IndiceDensidade densidade;
 
     /**
-     * Representa um campo com as dimensões fornecidas.
+     * Representa um campo com as dimensões fornecidas, que usa o
+     * gerador aleatório compartilhado (veja Randomizador.obterRandom).
      * @param comprimento O comprimento do campo.
      * @param largura A largura do campo.
      */
     public Campo(int comprimento, int largura)
     {
-        this.comprimento = comprimento;
-        this.largura = largura;
-        campo = new Object[comprimento][largura];
+        this(comprimento, largura, Randomizador.obterRandom());
+    }
+    
+    /**
+     * Representa um campo com as dimensões fornecidas.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     * @param rand O gerador de números aleatórios usado pelas operações
+     *             para as quais nenhum outro gerador é fornecido.
+     */
+    public Campo(int comprimento, int largura, RandomGenerator rand)
+    {
+        this(ParametrosSimulacao.padrao().comDimensoes(comprimento, largura), rand);
     }
     
     /**
-     * Esvazia o campo.
+     * Representa um campo com as dimensões e os parâmetros do modelo fornecidos.
+     * @param parametros Os parâmetros do modelo, incluindo as dimensões do campo.
+     * @param rand O gerador de números aleatórios usado pelas operações
+     *             para as quais nenhum outro gerador é fornecido.
+     */
+    public Campo(ParametrosSimulacao parametros, RandomGenerator rand)
+    {
+        this(parametros, rand, TipoGrade.DENSA);
+    }
+    
+    /**
+     * Representa um campo com as dimensões e os parâmetros do modelo
+     * fornecidos, cujas posições são guardadas no tipo de grade fornecido.
+     * @param parametros Os parâmetros do modelo, incluindo as dimensões do campo.
+     * @param rand O gerador de números aleatórios usado pelas operações
+     *             para as quais nenhum outro gerador é fornecido.
+     * @param tipoGrade Como guardar as posições do campo.
+     * @throws IllegalArgumentException Se o campo tiver mais posições do que
+     *         um índice inteiro pode indicar.
+     */
+    public Campo(ParametrosSimulacao parametros, RandomGenerator rand, TipoGrade tipoGrade)
+    {
+        this.parametros = parametros;
+        this.rand = rand;
+        comprimento = parametros.obterComprimento();
+        largura = parametros.obterLargura();
+        if((long) comprimento * largura > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("O campo tem posições demais: " + comprimento + "x" + largura);
+        }
+        int tamanho = comprimento * largura;
+        grade = tipoGrade.criar(comprimento, largura);
+        armazens = new ArmazemAnimais[Especie.values().length + 1];
+        for(Especie especie : Especie.values()) {
+            armazens[especie.obterCodigo()] = new ArmazemAnimais();
+        }
+        if(tipoGrade == TipoGrade.DENSA) {
+            localizacoes = new Localizacao[tamanho];
+        }
+        deslocamentosIndice = new int[MAXIMO_VIZINHOS];
+        for(int i = 0; i < MAXIMO_VIZINHOS; i++) {
+            deslocamentosIndice[i] = DESLOCAMENTOS_LINHA[i] * largura + DESLOCAMENTOS_COLUNA[i];
+        }
+        metricas = new MetricasSimulacao(this);
+        if(parametros.obterRaioCaca() > 1 || parametros.obterRaioFuga() > 0) {
+            densidade = new IndiceDensidade(comprimento, largura);
+        }
+    }
+    
+    /**
+     * Esvazia o campo. Todas as posições contam como alteradas.
      */
     public void limpar()
     {
-        for(int linha = 0; linha < comprimento; linha++) {
-            for(int coluna = 0; coluna < largura; coluna++) {
-                campo[linha][coluna] = null;
-            }
+        grade.limparTudo();
+        for(Especie especie : Especie.values()) {
+            armazens[especie.obterCodigo()].limpar();
+        }
+        if(densidade != null) {
+            densidade.limpar();
         }
     }
     
@@ -51,7 +152,20 @@ public class Campo
      */
     public void limpar(Localizacao localizacao)
     {
-        campo[localizacao.obterLinha()][localizacao.obterColuna()] = null;
+        limpar(obterIndice(localizacao));
+    }
+    
+    /**
+     * Limpa a localização com o índice fornecido.
+     * @param indice O índice da localização a ser limpa.
+     */
+    public void limpar(int indice)
+    {
+        if(densidade != null) {
+            int linha = indice / largura;
+            densidade.somar(grade.obterEspecie(indice), linha, indice - linha * largura, -1);
+        }
+        grade.limpar(indice);
     }
     
     /**
@@ -63,7 +177,7 @@ public class Campo
      */
     public void colocar(Object animal, int linha, int coluna)
     {
-        colocar(animal, new Localizacao(linha, coluna));
+        colocar(animal, obterIndice(linha, coluna));
     }
     
     /**
@@ -74,7 +188,161 @@ public class Campo
      */
     public void colocar(Object animal, Localizacao localizacao)
     {
-        campo[localizacao.obterLinha()][localizacao.obterColuna()] = animal;
+        colocar(animal, obterIndice(localizacao));
+    }
+    
+    /**
+     * Coloca um animal na localização com o índice fornecido.
+     * Se já houver um animal na localização, ele será substituído.
+     * @param animal O animal a ser colocado. Deve ser um coelho ou uma raposa.
+     * @param indice O índice de onde colocar o animal.
+     */
+    public void colocar(Object animal, int indice)
+    {
+        if(animal instanceof Coelho) {
+            colocar(Especie.COELHO, ((Coelho) animal).obterId(), indice);
+        }
+        else if(animal instanceof Raposa) {
+            colocar(Especie.RAPOSA, ((Raposa) animal).obterId(), indice);
+        }
+        else {
+            throw new IllegalArgumentException("Animal de espécie desconhecida: " + animal);
+        }
+    }
+    
+    /**
+     * Coloca um animal já registrado na localização com o índice fornecido.
+     * Se já houver um animal na localização, ele será substituído.
+     * @param especie A espécie do animal.
+     * @param id O identificador do animal (veja ArmazemAnimais.registrar).
+     * @param indice O índice de onde colocar o animal.
+     */
+    public void colocar(Especie especie, int id, int indice)
+    {
+        if(densidade != null) {
+            int linha = indice / largura;
+            int coluna = indice - linha * largura;
+            densidade.somar(grade.obterEspecie(indice), linha, coluna, -1);
+            densidade.somar(especie.obterCodigo(), linha, coluna, 1);
+        }
+        grade.colocar(indice, especie.obterCodigo(), id);
+    }
+    
+    /**
+     * Retorna o índice da primeira posição alterada a partir do índice fornecido.
+     * Para percorrer todas as posições alteradas:
+     * for(int i = campo.proximaAlterada(0); i != Campo.NENHUMA; i = campo.proximaAlterada(i + 1))
+     * @param desde O índice a partir do qual procurar (inclusive).
+     * @return O índice da posição alterada, ou NENHUMA se não houver mais nenhuma.
+     */
+    public int proximaAlterada(int desde)
+    {
+        return grade.proximaAlterada(desde);
+    }
+    
+    /**
+     * Verifica se a posição com o índice fornecido foi alterada desde a
+     * última chamada a limparAlteracoes.
+     * @param indice O índice da localização.
+     * @return Verdadeiro se a posição foi alterada.
+     */
+    public boolean foiAlterada(int indice)
+    {
+        return grade.foiAlterada(indice);
+    }
+    
+    /**
+     * Esquece as alterações registradas. A partir de agora, apenas as
+     * posições alteradas depois desta chamada contam como alteradas.
+     */
+    public void limparAlteracoes()
+    {
+        grade.limparAlteracoes();
+    }
+    
+    /**
+     * Retorna o índice da primeira posição ocupada do intervalo fornecido.
+     * Em uma grade em ladrilhos, as áreas sem animais são puladas sem
+     * serem percorridas.
+     * @param desde O índice a partir do qual procurar (inclusive).
+     * @param ate O índice até o qual procurar (exclusive).
+     * @return O índice da posição ocupada, ou NENHUMA se não houver.
+     */
+    public int proximaOcupada(int desde, int ate)
+    {
+        return grade.proximaOcupada(desde, ate);
+    }
+    
+    /**
+     * @return As métricas da simulação que usa este campo.
+     */
+    public MetricasSimulacao obterMetricas()
+    {
+        return metricas;
+    }
+    
+    /**
+     * @return A grade que guarda as posições do campo.
+     */
+    public GradeCampo obterGrade()
+    {
+        return grade;
+    }
+    
+    /**
+     * Retorna o armazém com o estado dos animais de uma espécie.
+     * @param especie A espécie.
+     * @return O armazém da espécie.
+     */
+    public ArmazemAnimais obterArmazem(Especie especie)
+    {
+        return armazens[especie.obterCodigo()];
+    }
+    
+    /**
+     * Retorna quantos animais de uma espécie estão no campo. A contagem é
+     * mantida pelo armazém da espécie a cada nascimento e morte, portanto
+     * não é preciso percorrer o campo.
+     * @param especie A espécie.
+     * @return O número de animais da espécie no campo.
+     */
+    public int obterPopulacao(Especie especie)
+    {
+        return armazens[especie.obterCodigo()].obterQuantidade();
+    }
+    
+    /**
+     * Retorna quantos animais de uma espécie nasceram (ou foram colocados)
+     * no campo desde a sua criação. A diferença entre dois valores é o
+     * número de nascimentos entre eles.
+     * @param especie A espécie.
+     * @return O total de animais da espécie que entraram no campo.
+     */
+    public long obterTotalNascimentos(Especie especie)
+    {
+        return armazens[especie.obterCodigo()].obterTotalRegistrados();
+    }
+    
+    /**
+     * Retorna quantos animais de uma espécie morreram desde a criação do
+     * campo, por qualquer causa (incluindo os comidos por predadores).
+     * @param especie A espécie.
+     * @return O total de mortes de animais da espécie.
+     */
+    public long obterTotalMortes(Especie especie)
+    {
+        return armazens[especie.obterCodigo()].obterTotalLiberados();
+    }
+    
+    /**
+     * Retorna quantos animais de uma espécie foram comidos por predadores
+     * desde a criação do campo.
+     * @param especie A espécie.
+     * @return O total de animais da espécie que foram comidos.
+     */
+    public long obterTotalPredacoes(Especie especie)
+    {
+        return armazens[especie.obterCodigo()].obterTotalPredados();
     }
     
     /**
@@ -84,7 +352,7 @@ public class Campo
      */
     public Object obterObjetoEm(Localizacao localizacao)
     {
-        return obterObjetoEm(localizacao.obterLinha(), localizacao.obterColuna());
+        return obterObjetoEm(obterIndice(localizacao));
     }
     
     /**
@@ -95,7 +363,107 @@ public class Campo
      */
     public Object obterObjetoEm(int linha, int coluna)
     {
-        return campo[linha][coluna];
+        return obterObjetoEm(obterIndice(linha, coluna));
+    }
+    
+    /**
+     * Retorna o animal no índice fornecido, se houver.
+     * @param indice O índice da localização (linha * largura + coluna).
+     * @return O animal na localização fornecida, ou null se não houver nenhum.
+     */
+    public Object obterObjetoEm(int indice)
+    {
+        byte especie = grade.obterEspecie(indice);
+        if(especie == Especie.VAZIO) {
+            return null;
+        }
+        return armazens[especie].obterAnimal(grade.obterId(indice));
+    }
+    
+    /**
+     * Retorna o código da espécie do animal no índice fornecido.
+     * @param indice O índice da localização (linha * largura + coluna).
+     * @return O código da espécie, ou Especie.VAZIO se a localização estiver livre.
+     */
+    public byte obterEspecieEm(int indice)
+    {
+        return grade.obterEspecie(indice);
+    }
+
+    /**
+     * Copia os códigos das espécies de todas as posições do campo, na ordem
+     * dos índices. Útil para guardar uma imagem do campo que não muda
+     * enquanto a simulação continua.
+     * @param destino O vetor que recebe os códigos. Deve ter ao menos
+     *                comprimento * largura posições.
+     */
+    public void copiarEspecies(byte[] destino)
+    {
+        grade.copiarEspecies(destino);
+    }
+
+    /**
+     * Retorna o identificador do animal no índice fornecido.
+     * @param indice O índice da localização (linha * largura + coluna).
+     * @return O identificador do animal no armazém da sua espécie. Não tem
+     *         significado se a localização estiver livre.
+     */
+    public int obterIdEm(int indice)
+    {
+        return grade.obterId(indice);
+    }
+    
+    /**
+     * Verifica se a localização com o índice fornecido está livre.
+     * @param indice O índice da localização (linha * largura + coluna).
+     * @return true se não houver nenhum animal na localização.
+     */
+    public boolean estaLivre(int indice)
+    {
+        return grade.obterEspecie(indice) == Especie.VAZIO;
+    }
+    
+    /**
+     * Retorna o índice de uma localização: linha * largura + coluna.
+     * @param localizacao A localização.
+     * @return O índice da localização.
+     */
+    public int obterIndice(Localizacao localizacao)
+    {
+        return obterIndice(localizacao.obterLinha(), localizacao.obterColuna());
+    }
+    
+    /**
+     * Retorna o índice de uma posição: linha * largura + coluna.
+     * @param linha A linha da posição.
+     * @param coluna A coluna da posição.
+     * @return O índice da posição.
+     */
+    public int obterIndice(int linha, int coluna)
+    {
+        return linha * largura + coluna;
+    }
+    
+    /**
+     * Retorna a localização correspondente a um índice. Há uma única
+     * localização (canônica) para cada índice; ela é criada na primeira
+     * vez em que é pedida e reaproveitada depois disso. Com uma grade que
+     * não é densa, uma nova localização é criada a cada vez, para que a
+     * memória do heap não seja proporcional ao tamanho do campo.
+     * @param indice O índice da localização (linha * largura + coluna).
+     * @return A localização com o índice fornecido.
+     */
+    public Localizacao obterLocalizacao(int indice)
+    {
+        if(localizacoes == null) {
+            return new Localizacao(indice / largura, indice % largura);
+        }
+        Localizacao localizacao = localizacoes[indice];
+        if(localizacao == null) {
+            localizacao = new Localizacao(indice / largura, indice % largura);
+            localizacoes[indice] = localizacao;
+        }
+        return localizacao;
     }
     
     /**
@@ -119,14 +487,9 @@ public class Campo
      */
     public List<Localizacao> localizacoesVizinhasLivres(Localizacao localizacao)
     {
-        List<Localizacao> livres = new LinkedList<>();
-        List<Localizacao> vizinhas = localizacoesVizinhas(localizacao);
-        for(Localizacao proxima : vizinhas) {
-            if(obterObjetoEm(proxima) == null) {
-                livres.add(proxima);
-            }
-        }
-        return livres;
+        int[] livres = new int[MAXIMO_VIZINHOS];
+        int quantidade = localizacoesVizinhasLivres(obterIndice(localizacao), livres);
+        return criarLista(livres, quantidade);
     }
     
     /**
@@ -139,10 +502,9 @@ public class Campo
      */
     public Localizacao localizacaoVizinhaLivre(Localizacao localizacao)
     {
-        // As localizações livres disponíveis.
-        List<Localizacao> livres = localizacoesVizinhasLivres(localizacao);
-        if(livres.size() > 0) {
-            return livres.get(0);
+        int livre = localizacaoVizinhaLivre(obterIndice(localizacao), new int[MAXIMO_VIZINHOS]);
+        if(livre != NENHUMA) {
+            return obterLocalizacao(livre);
         }
         else {
             return null;
@@ -159,31 +521,310 @@ public class Campo
     public List<Localizacao> localizacoesVizinhas(Localizacao localizacao)
     {
         assert localizacao != null : "Localização nula passada para localizacoesVizinhas";
-        // A lista de localizações a ser retornada.
-        List<Localizacao> localizacoes = new LinkedList<>();
-        if(localizacao != null) {
-            int linha = localizacao.obterLinha();
-            int coluna = localizacao.obterColuna();
-            for(int deslocLinha = -1; deslocLinha <= 1; deslocLinha++) {
-                int proxLinha = linha + deslocLinha;
-                if(proxLinha >= 0 && proxLinha < comprimento) {
-                    for(int deslocColuna = -1; deslocColuna <= 1; deslocColuna++) {
-                        int proxColuna = coluna + deslocColuna;
-                        // Excluir localizações inválidas e a localização original.
-                        if(proxColuna >= 0 && proxColuna < largura && (deslocLinha != 0 || deslocColuna != 0)) {
-                            localizacoes.add(new Localizacao(proxLinha, proxColuna));
+        if(localizacao == null) {
+            return new LinkedList<>();
+        }
+        int[] vizinhas = new int[MAXIMO_VIZINHOS];
+        int quantidade = localizacoesVizinhas(obterIndice(localizacao), vizinhas);
+        return criarLista(vizinhas, quantidade);
+    }
+    
+    /**
+     * Escreve no vetor fornecido os índices das localizações vizinhas ao
+     * índice fornecido, em ordem aleatória, usando o gerador do campo.
+     * @param indice O índice a partir do qual gerar vizinhanças.
+     * @param destino Um vetor com pelo menos MAXIMO_VIZINHOS posições.
+     * @return Quantas posições do vetor foram preenchidas.
+     */
+    public int localizacoesVizinhas(int indice, int[] destino)
+    {
+        return localizacoesVizinhas(indice, destino, rand);
+    }
+    
+    /**
+     * Escreve no vetor fornecido os índices das localizações vizinhas ao
+     * índice fornecido, em ordem aleatória. A própria localização não é
+     * incluída e todas as localizações estão dentro da grade.
+     * Nenhum objeto é criado: o vetor pode ser reutilizado entre chamadas.
+     * @param indice O índice a partir do qual gerar vizinhanças.
+     * @param destino Um vetor com pelo menos MAXIMO_VIZINHOS posições.
+     * @param rand O gerador usado para embaralhar as vizinhas.
+     * @return Quantas posições do vetor foram preenchidas.
+     */
+    public int localizacoesVizinhas(int indice, int[] destino, RandomGenerator rand)
+    {
+        metricas.registrarConsultaVizinhanca();
+        int linha = indice / largura;
+        int coluna = indice - linha * largura;
+        int quantidade = 0;
+        if(linha > 0 && linha < comprimento - 1 && coluna > 0 && coluna < largura - 1) {
+            // Longe das bordas todas as vizinhas são válidas.
+            for(int i = 0; i < MAXIMO_VIZINHOS; i++) {
+                destino[i] = indice + deslocamentosIndice[i];
+            }
+            quantidade = MAXIMO_VIZINHOS;
+        }
+        else {
+            for(int i = 0; i < MAXIMO_VIZINHOS; i++) {
+                int proxLinha = linha + DESLOCAMENTOS_LINHA[i];
+                int proxColuna = coluna + DESLOCAMENTOS_COLUNA[i];
+                // Excluir localizações fora da grade.
+                if(proxLinha >= 0 && proxLinha < comprimento && proxColuna >= 0 && proxColuna < largura) {
+                    destino[quantidade++] = indice + deslocamentosIndice[i];
+                }
+            }
+        }
+        // Embaralha as vizinhas. Vários outros métodos dependem delas
+        // estarem em uma ordem aleatória.
+        embaralhar(destino, quantidade, rand);
+        return quantidade;
+    }
+    
+    /**
+     * Escreve no vetor fornecido os índices das localizações vizinhas livres,
+     * em ordem aleatória, usando o gerador do campo.
+     * @param indice O índice a partir do qual gerar vizinhanças.
+     * @param destino Um vetor com pelo menos MAXIMO_VIZINHOS posições.
+     * @return Quantas posições do vetor foram preenchidas.
+     */
+    public int localizacoesVizinhasLivres(int indice, int[] destino)
+    {
+        return localizacoesVizinhasLivres(indice, destino, rand);
+    }
+    
+    /**
+     * Escreve no vetor fornecido os índices das localizações vizinhas livres,
+     * em ordem aleatória. Nenhum objeto é criado.
+     * @param indice O índice a partir do qual gerar vizinhanças.
+     * @param destino Um vetor com pelo menos MAXIMO_VIZINHOS posições.
+     * @param rand O gerador usado para embaralhar as vizinhas.
+     * @return Quantas posições do vetor foram preenchidas.
+     */
+    public int localizacoesVizinhasLivres(int indice, int[] destino, RandomGenerator rand)
+    {
+        int quantidade = localizacoesVizinhas(indice, destino, rand);
+        int livres = 0;
+        for(int i = 0; i < quantidade; i++) {
+            if(grade.obterEspecie(destino[i]) == Especie.VAZIO) {
+                destino[livres++] = destino[i];
+            }
+        }
+        return livres;
+    }
+    
+    /**
+     * Tenta encontrar uma localização livre que seja vizinha ao índice
+     * fornecido, usando o gerador do campo.
+     * @param indice O índice a partir do qual gerar uma vizinhança.
+     * @param buffer Um vetor de trabalho com pelo menos MAXIMO_VIZINHOS posições.
+     * @return O índice de uma localização livre, ou NENHUMA se não houver.
+     */
+    public int localizacaoVizinhaLivre(int indice, int[] buffer)
+    {
+        return localizacaoVizinhaLivre(indice, buffer, rand);
+    }
+    
+    /**
+     * Tenta encontrar uma localização livre que seja vizinha ao índice
+     * fornecido. Nenhum objeto é criado.
+     * @param indice O índice a partir do qual gerar uma vizinhança.
+     * @param buffer Um vetor de trabalho com pelo menos MAXIMO_VIZINHOS posições.
+     * @param rand O gerador usado para embaralhar as vizinhas.
+     * @return O índice de uma localização livre, ou NENHUMA se não houver.
+     */
+    public int localizacaoVizinhaLivre(int indice, int[] buffer, RandomGenerator rand)
+    {
+        if(localizacoesVizinhasLivres(indice, buffer, rand) > 0) {
+            return buffer[0];
+        }
+        else {
+            return NENHUMA;
+        }
+    }
+    
+    /**
+     * Procura o animal de uma espécie mais próximo de uma localização, a
+     * uma distância de no máximo raio posições (contando as diagonais, de
+     * modo que as vizinhas estão à distância 1). Entre animais à mesma
+     * distância, fica o mais próximo em linha reta e, depois, o de menor
+     * índice, de modo que o resultado não depende da ordem da procura.
+     * 
+     * Os blocos do campo são percorridos em anéis em torno do bloco da
+     * localização, e os blocos sem nenhum animal da espécie (veja
+     * IndiceDensidade) são pulados sem que as suas posições sejam lidas.
+     * A procura termina assim que os anéis restantes não puderem ter um
+     * animal mais próximo do que o já encontrado.
+     * 
+     * Apenas as posições dentro do raio são lidas, portanto a procura pode
+     * ser feita em um passo paralelo desde que as faixas sejam mais altas
+     * do que o raio (veja PassoParalelo).
+     * @param indice O índice da localização. Ela própria não é considerada.
+     * @param especie A espécie procurada.
+     * @param raio A maior distância considerada (no máximo RAIO_MAXIMO).
+     * @return O índice do animal mais próximo, ou NENHUMA se não houver
+     *         nenhum dentro do raio.
+     */
+    public int procurarMaisProxima(int indice, Especie especie, int raio)
+    {
+        byte codigo = especie.obterCodigo();
+        int linha = indice / largura;
+        int coluna = indice - linha * largura;
+        int linhaMin = Math.max(0, linha - raio), linhaMax = Math.min(comprimento - 1, linha + raio);
+        int colunaMin = Math.max(0, coluna - raio), colunaMax = Math.min(largura - 1, coluna + raio);
+        int linhaBloco = linha >> IndiceDensidade.BITS_LADO;
+        int colunaBloco = coluna >> IndiceDensidade.BITS_LADO;
+        int linhaBlocoMin = linhaMin >> IndiceDensidade.BITS_LADO, linhaBlocoMax = linhaMax >> IndiceDensidade.BITS_LADO;
+        int colunaBlocoMin = colunaMin >> IndiceDensidade.BITS_LADO, colunaBlocoMax = colunaMax >> IndiceDensidade.BITS_LADO;
+        int aneis = Math.max(Math.max(linhaBloco - linhaBlocoMin, linhaBlocoMax - linhaBloco),
+                             Math.max(colunaBloco - colunaBlocoMin, colunaBlocoMax - colunaBloco));
+        // A melhor chave encontrada: a distância, a distância em linha reta
+        // (ao quadrado) e o índice, nessa ordem de importância.
+        long melhor = Long.MAX_VALUE;
+        for(int anel = 0; anel <= aneis; anel++) {
+            int bl0 = Math.max(linhaBlocoMin, linhaBloco - anel), bl1 = Math.min(linhaBlocoMax, linhaBloco + anel);
+            int bc0 = Math.max(colunaBlocoMin, colunaBloco - anel), bc1 = Math.min(colunaBlocoMax, colunaBloco + anel);
+            for(int bl = bl0; bl <= bl1; bl++) {
+                // Nas linhas do meio do anel, apenas o primeiro e o último bloco são do anel.
+                boolean linhaDaBorda = bl == linhaBloco - anel || bl == linhaBloco + anel;
+                int passoColuna = linhaDaBorda ? 1 : 2 * anel;
+                for(int bc = linhaDaBorda ? bc0 : colunaBloco - anel; bc <= bc1; bc += passoColuna) {
+                    if(bc < bc0 || (densidade != null && densidade.obterContagem(codigo, bl, bc) == 0)) {
+                        continue;
+                    }
+                    int l0 = Math.max(linhaMin, bl << IndiceDensidade.BITS_LADO);
+                    int l1 = Math.min(linhaMax, (bl << IndiceDensidade.BITS_LADO) + IndiceDensidade.LADO - 1);
+                    int c0 = Math.max(colunaMin, bc << IndiceDensidade.BITS_LADO);
+                    int c1 = Math.min(colunaMax, (bc << IndiceDensidade.BITS_LADO) + IndiceDensidade.LADO - 1);
+                    for(int l = l0; l <= l1; l++) {
+                        int base = l * largura;
+                        for(int c = c0; c <= c1; c++) {
+                            int onde = base + c;
+                            if(onde != indice && grade.obterEspecie(onde) == codigo) {
+                                int dl = Math.abs(l - linha), dc = Math.abs(c - coluna);
+                                long chave = ((long) Math.max(dl, dc) << 49) | ((long) (dl * dl + dc * dc) << 31) | onde;
+                                melhor = Math.min(melhor, chave);
+                            }
                         }
                     }
                 }
             }
-            
-            // Embaralha a lista. Vários outros métodos dependem da lista
-            // estar em uma ordem aleatória.
-            Collections.shuffle(localizacoes, rand);
+            // Os blocos dos anéis seguintes estão a mais de anel * LADO posições.
+            if(melhor != Long.MAX_VALUE && (melhor >>> 49) <= (long) anel * IndiceDensidade.LADO) {
+                break;
+            }
+        }
+        return melhor == Long.MAX_VALUE ? NENHUMA : (int) (melhor & Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Escolhe, entre as localizações vizinhas livres, a mais próxima de um
+     * alvo. Entre localizações à mesma distância, fica a primeira de uma
+     * ordem aleatória, de modo que os números aleatórios usados são os
+     * mesmos de localizacaoVizinhaLivre.
+     * @param indice O índice a partir do qual gerar uma vizinhança.
+     * @param alvo O índice do alvo.
+     * @param buffer Um vetor de trabalho com pelo menos MAXIMO_VIZINHOS posições.
+     * @param rand O gerador usado para embaralhar as vizinhas.
+     * @return O índice de uma localização livre, ou NENHUMA se não houver.
+     */
+    public int localizacaoVizinhaLivreEmDirecao(int indice, int alvo, int[] buffer, RandomGenerator rand)
+    {
+        return escolherVizinhaLivre(indice, alvo, buffer, rand, false);
+    }
+    
+    /**
+     * Escolhe, entre as localizações vizinhas livres, a mais distante de
+     * uma ameaça. Entre localizações à mesma distância, fica a primeira de
+     * uma ordem aleatória, como em localizacaoVizinhaLivreEmDirecao.
+     * @param indice O índice a partir do qual gerar uma vizinhança.
+     * @param ameaca O índice da ameaça.
+     * @param buffer Um vetor de trabalho com pelo menos MAXIMO_VIZINHOS posições.
+     * @param rand O gerador usado para embaralhar as vizinhas.
+     * @return O índice de uma localização livre, ou NENHUMA se não houver.
+     */
+    public int localizacaoVizinhaLivreLongeDe(int indice, int ameaca, int[] buffer, RandomGenerator rand)
+    {
+        return escolherVizinhaLivre(indice, ameaca, buffer, rand, true);
+    }
+    
+    /**
+     * Escolhe a localização vizinha livre mais próxima (ou mais distante)
+     * de uma referência: primeiro pela distância contando as diagonais e,
+     * depois, pela distância em linha reta.
+     * @param afastar Se verdadeiro, escolhe a mais distante.
+     */
+    private int escolherVizinhaLivre(int indice, int referencia, int[] buffer, RandomGenerator rand, boolean afastar)
+    {
+        int quantidade = localizacoesVizinhasLivres(indice, buffer, rand);
+        int linhaRef = referencia / largura;
+        int colunaRef = referencia - linhaRef * largura;
+        int escolhida = NENHUMA;
+        long melhor = 0;
+        for(int i = 0; i < quantidade; i++) {
+            int linha = buffer[i] / largura;
+            int dl = Math.abs(linha - linhaRef), dc = Math.abs(buffer[i] - linha * largura - colunaRef);
+            long distancia = ((long) Math.max(dl, dc) << 32) | (dl * dl + dc * dc);
+            if(afastar) {
+                distancia = -distancia;
+            }
+            if(escolhida == NENHUMA || distancia < melhor) {
+                escolhida = buffer[i];
+                melhor = distancia;
+            }
+        }
+        return escolhida;
+    }
+    
+    /**
+     * Embaralha as primeiras posições do vetor fornecido. Usa o mesmo algoritmo
+     * (e a mesma sequência de números aleatórios) que Collections.shuffle.
+     * @param valores Os valores a serem embaralhados.
+     * @param quantidade Quantas posições do vetor embaralhar.
+     * @param rand O gerador de números aleatórios.
+     */
+    private void embaralhar(int[] valores, int quantidade, RandomGenerator rand)
+    {
+        for(int i = quantidade; i > 1; i--) {
+            int j = rand.nextInt(i);
+            int temp = valores[i - 1];
+            valores[i - 1] = valores[j];
+            valores[j] = temp;
+        }
+    }
+    
+    /**
+     * Cria uma lista de localizações a partir de índices.
+     * @param indices Os índices das localizações.
+     * @param quantidade Quantos índices usar.
+     * @return Uma lista com as localizações na mesma ordem dos índices.
+     */
+    private List<Localizacao> criarLista(int[] indices, int quantidade)
+    {
+        List<Localizacao> localizacoes = new LinkedList<>();
+        for(int i = 0; i < quantidade; i++) {
+            localizacoes.add(obterLocalizacao(indices[i]));
         }
         return localizacoes;
     }
 
+    /**
+     * @return Os parâmetros do modelo seguidos pelos animais deste campo.
+     */
+    public ParametrosSimulacao obterParametros()
+    {
+        return parametros;
+    }
+    
+    /**
+     * Retorna o gerador de números aleatórios do campo, usado quando nenhum
+     * outro é fornecido.
+     * @return O gerador do campo.
+     */
+    public RandomGenerator obterGerador()
+    {
+        return rand;
+    }
+
     /**
      * Retorna o comprimento do campo.
      * @return O comprimento do campo.
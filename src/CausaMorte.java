@@ -0,0 +1,21 @@
+/**
+ * As causas da morte de um animal, registradas nas métricas da simulação
+ * (veja MetricasSimulacao).
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public enum CausaMorte
+{
+    // O animal passou da idade máxima da sua espécie.
+    IDADE,
+    // A raposa ficou sem comida.
+    FOME,
+    // O animal não encontrou nenhuma posição livre para onde se mover.
+    SUPERLOTACAO,
+    // O coelho foi comido por uma raposa.
+    PREDACAO,
+    // O animal foi removido por quem usa a simulação (veja Coelho.morrer).
+    OUTRA;
+}
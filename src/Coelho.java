@@ -1,5 +1,5 @@
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Um modelo simples de um coelho.
@@ -12,28 +12,25 @@ import java.util.Random;
 public class Coelho
 {
     // Características compartilhadas por todos os coelhos (atributos estáticos, da classe).
+    // A idade de reprodução, a idade máxima, a probabilidade de reprodução e o
+    // tamanho máximo da ninhada são parâmetros do modelo, obtidos do campo
+    // (veja ParametrosSimulacao).
 
-    // A idade em que um coelho pode começar a se reproduzir.
-    private static final int IDADE_REPRODUCAO = 5;
-    // A idade máxima que um coelho pode atingir.
-    private static final int IDADE_MAXIMA = 40;
-    // A probabilidade de um coelho se reproduzir.
-    private static final double PROBABILIDADE_REPRODUCAO = 0.12;
-    // O número máximo de filhotes que podem nascer de cada vez.
-    private static final int TAMANHO_MAXIMO_NINHADA = 4;
-    // Um gerador de números aleatórios compartilhado para controlar a reprodução.
-    private static final Random rand = Randomizador.obterRandom();
+    // Um vetor de trabalho por thread para as consultas de vizinhança, de modo
+    // que elas não criem nenhum objeto.
+    private static final ThreadLocal<int[]> bufferVizinhas =
+        ThreadLocal.withInitial(() -> new int[Campo.MAXIMO_VIZINHOS]);
     
     // Características individuais (atributos comuns, de instância).
+    // O estado do coelho (idade, localização, etc.) fica no armazém de coelhos
+    // do campo; este objeto é apenas uma visão sobre ele.
     
-    // A idade do coelho.
-    private int idade;
-    // Indica se o coelho está vivo ou não.
-    private boolean vivo;
-    // A localização do coelho.
-    private Localizacao localizacao;
     // O campo ocupado.
     private Campo campo;
+    // O armazém com o estado dos coelhos.
+    private ArmazemAnimais armazem;
+    // O identificador do coelho no armazém (ArmazemAnimais.NENHUM se morto).
+    private int id;
 
     /**
      * Cria um novo coelho. Um coelho pode ser criado com idade
@@ -45,12 +42,70 @@ public class Coelho
      */
     public Coelho(boolean idadeAleatoria, Campo campo, Localizacao localizacao)
     {
-        idade = 0;
-        vivo = true;
+        this(idadeAleatoria, campo, campo.obterIndice(localizacao));
+    }
+    
+    /**
+     * Cria um novo coelho na localização com o índice fornecido.
+     * 
+     * @param idadeAleatoria Se verdadeiro, o coelho terá uma idade aleatória.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao O índice da localização dentro do campo.
+     */
+    public Coelho(boolean idadeAleatoria, Campo campo, int localizacao)
+    {
+        this(idadeAleatoria, campo, localizacao, campo.obterGerador());
+    }
+    
+    /**
+     * Cria um novo coelho na localização com o índice fornecido, usando o gerador
+     * de números aleatórios fornecido.
+     * 
+     * @param idadeAleatoria Se verdadeiro, o coelho terá uma idade aleatória.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao O índice da localização dentro do campo.
+     * @param rand O gerador de números aleatórios usado para sortear a idade.
+     */
+    public Coelho(boolean idadeAleatoria, Campo campo, int localizacao, RandomGenerator rand)
+    {
+        iniciar(idadeAleatoria, campo, localizacao, rand);
+    }
+    
+    /**
+     * Retorna um coelho recém-nascido na localização fornecida. Se houver
+     * um coelho morto na reserva do armazém (veja
+     * Simulador.definirReaproveitamento), ele é reiniciado e reaproveitado;
+     * caso contrário, um novo coelho é criado.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao O índice da localização dentro do campo.
+     * @return O coelho recém-nascido.
+     */
+    private static Coelho nascer(Campo campo, int localizacao)
+    {
+        Coelho coelho = (Coelho) campo.obterArmazem(Especie.COELHO).retirar();
+        if(coelho == null) {
+            return new Coelho(false, campo, localizacao);
+        }
+        assert !coelho.estaVivo() : "Coelho vivo na reserva do armazém";
+        coelho.iniciar(false, campo, localizacao, null);
+        return coelho;
+    }
+    
+    /**
+     * Registra o coelho no armazém e o coloca no campo.
+     * @param idadeAleatoria Se verdadeiro, o coelho terá uma idade aleatória.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao O índice da localização dentro do campo.
+     * @param rand O gerador de números aleatórios usado para sortear a idade.
+     */
+    private void iniciar(boolean idadeAleatoria, Campo campo, int localizacao, RandomGenerator rand)
+    {
         this.campo = campo;
+        armazem = campo.obterArmazem(Especie.COELHO);
+        id = armazem.registrar(this);
         definirLocalizacao(localizacao);
         if(idadeAleatoria) {
-            idade = rand.nextInt(IDADE_MAXIMA);
+            armazem.definirIdade(id, rand.nextInt(campo.obterParametros().obterIdadeMaxima(Especie.COELHO)));
         }
     }
     
@@ -60,18 +115,40 @@ public class Coelho
      * @param novosCoelhos Uma lista para retornar os coelhos recém-nascidos.
      */
     public void correr(List<Coelho> novosCoelhos)
+    {
+        if(estaVivo()) {
+            correr(novosCoelhos, campo.obterGerador());
+        }
+    }
+    
+    /**
+     * Faz o coelho correr usando o gerador de números aleatórios fornecido.
+     * @param novosCoelhos Uma lista para retornar os coelhos recém-nascidos.
+     * @param rand O gerador de números aleatórios a ser usado.
+     */
+    public void correr(List<Coelho> novosCoelhos, RandomGenerator rand)
     {
         incrementarIdade();
-        if(vivo) {
-            reproduzir(novosCoelhos);            
-            // Tenta se mover para uma localização livre.
-            Localizacao novaLocalizacao = campo.localizacaoVizinhaLivre(localizacao);
-            if(novaLocalizacao != null) {
+        if(estaVivo()) {
+            reproduzir(novosCoelhos, rand);            
+            // Tenta se mover para uma localização livre, fugindo da raposa
+            // mais próxima se perceber alguma.
+            int localizacao = armazem.obterLocalizacao(id);
+            int raio = campo.obterParametros().obterRaioFuga();
+            int ameaca = raio > 0 ? campo.procurarMaisProxima(localizacao, Especie.RAPOSA, raio) : Campo.NENHUMA;
+            int novaLocalizacao;
+            if(ameaca != Campo.NENHUMA) {
+                novaLocalizacao = campo.localizacaoVizinhaLivreLongeDe(localizacao, ameaca, bufferVizinhas.get(), rand);
+            }
+            else {
+                novaLocalizacao = campo.localizacaoVizinhaLivre(localizacao, bufferVizinhas.get(), rand);
+            }
+            if(novaLocalizacao != Campo.NENHUMA) {
                 definirLocalizacao(novaLocalizacao);
             }
             else {
                 // Superlotação.
-                morrer();
+                morrer(CausaMorte.SUPERLOTACAO);
             }
         }
     }
@@ -82,7 +159,7 @@ public class Coelho
      */
     public boolean estaVivo()
     {
-        return vivo;
+        return id != ArmazemAnimais.NENHUM;
     }
     
     /**
@@ -91,10 +168,32 @@ public class Coelho
      */
     public void morrer()
     {
-        vivo = false;
-        if(localizacao != null) {
+        morrer(CausaMorte.OUTRA);
+    }
+    
+    /**
+     * Define que o coelho foi comido por um predador.
+     * Ele é removido do campo.
+     */
+    public void serComido()
+    {
+        morrer(CausaMorte.PREDACAO);
+    }
+    
+    /**
+     * Remove o coelho do campo.
+     * @param causa A causa da morte.
+     */
+    private void morrer(CausaMorte causa)
+    {
+        if(id != ArmazemAnimais.NENHUM) {
+            int localizacao = armazem.obterLocalizacao(id);
+            EventoMorte.registrar(campo, Especie.COELHO, causa, localizacao, armazem.obterIdade(id));
             campo.limpar(localizacao);
-            localizacao = null;
+            armazem.liberar(id, causa == CausaMorte.PREDACAO);
+            campo.obterMetricas().registrarMorte(Especie.COELHO, causa);
+            id = ArmazemAnimais.NENHUM;
+            armazem = null;
             campo = null;
         }
     }
@@ -105,20 +204,46 @@ public class Coelho
      */
     public Localizacao obterLocalizacao()
     {
-        return localizacao;
+        if(id == ArmazemAnimais.NENHUM) {
+            return null;
+        }
+        return campo.obterLocalizacao(armazem.obterLocalizacao(id));
+    }
+    
+    /**
+     * Retorna o índice da localização do coelho no campo.
+     * @return O índice da localização, ou Campo.NENHUMA se o coelho não estiver no campo.
+     */
+    public int obterIndiceLocalizacao()
+    {
+        if(id == ArmazemAnimais.NENHUM) {
+            return Campo.NENHUMA;
+        }
+        return armazem.obterLocalizacao(id);
+    }
+    
+    /**
+     * Retorna o identificador do coelho no campo.
+     * @return O identificador do coelho no armazém da sua espécie,
+     *         ou ArmazemAnimais.NENHUM se o coelho estiver morto.
+     */
+    public int obterId()
+    {
+        return id;
     }
     
     /**
      * Coloca o coelho na nova localização no campo fornecido.
-     * @param novaLocalizacao A nova localização do coelho.
+     * @param novaLocalizacao O índice da nova localização do coelho.
      */
-    private void definirLocalizacao(Localizacao novaLocalizacao)
+    private void definirLocalizacao(int novaLocalizacao)
     {
-        if(localizacao != null) {
+        int localizacao = armazem.obterLocalizacao(id);
+        if(localizacao != Campo.NENHUMA) {
             campo.limpar(localizacao);
         }
-        localizacao = novaLocalizacao;
-        campo.colocar(this, novaLocalizacao);
+        armazem.definirLocalizacao(id, novaLocalizacao);
+        campo.colocar(Especie.COELHO, id, novaLocalizacao);
     }
 
     /**
@@ -127,9 +252,8 @@ public class Coelho
      */
     private void incrementarIdade()
     {
-        idade++;
-        if(idade > IDADE_MAXIMA) {
-            morrer();
+        if(estaVivo() && armazem.incrementarIdade(id) > campo.obterParametros().obterIdadeMaxima(Especie.COELHO)) {
+            morrer(CausaMorte.IDADE);
         }
     }
     
@@ -137,30 +261,37 @@ public class Coelho
      * Verifica se este coelho deve dar à luz neste passo.
      * Novos nascimentos serão feitos em locais vizinhos livres.
      * @param novosCoelhos Uma lista para retornar os coelhos recém-nascidos.
+     * @param rand O gerador de números aleatórios a ser usado.
      */
-    private void reproduzir(List<Coelho> novosCoelhos)
+    private void reproduzir(List<Coelho> novosCoelhos, RandomGenerator rand)
     {
         // Novos coelhos nascem em locais vizinhos.
-        // Obter uma lista de locais vizinhos livres.
-        List<Localizacao> locaisLivres = campo.localizacoesVizinhasLivres(localizacao);
-        int nascimentos = procriar();
-        for(int b = 0; b < nascimentos && locaisLivres.size() > 0; b++) {
-            Localizacao loc = locaisLivres.remove(0);
-            Coelho filhote = new Coelho(false, campo, loc);
+        // Obter os locais vizinhos livres.
+        int[] locaisLivres = bufferVizinhas.get();
+        int numLivres = campo.localizacoesVizinhasLivres(armazem.obterLocalizacao(id), locaisLivres, rand);
+        int nascimentos = procriar(rand);
+        for(int b = 0; b < nascimentos && b < numLivres; b++) {
+            Coelho filhote = nascer(campo, locaisLivres[b]);
             novosCoelhos.add(filhote);
         }
+        if(nascimentos > 0 && numLivres > 0) {
+            EventoNascimento.registrar(campo, Especie.COELHO, armazem.obterLocalizacao(id),
+                                       Math.min(nascimentos, numLivres));
+        }
     }
         
     /**
      * Gera um número representando o número de nascimentos,
      * se puder procriar.
+     * @param rand O gerador de números aleatórios a ser usado.
      * @return O número de nascimentos (pode ser zero).
      */
-    private int procriar()
+    private int procriar(RandomGenerator rand)
     {
+        ParametrosSimulacao parametros = campo.obterParametros();
         int nascimentos = 0;
-        if(podeProcriar() && rand.nextDouble() <= PROBABILIDADE_REPRODUCAO) {
-            nascimentos = rand.nextInt(TAMANHO_MAXIMO_NINHADA) + 1;
+        if(podeProcriar() && rand.nextDouble() <= parametros.obterProbabilidadeReproducao(Especie.COELHO)) {
+            nascimentos = rand.nextInt(parametros.obterTamanhoMaximoNinhada(Especie.COELHO)) + 1;
         }
         return nascimentos;
     }
@@ -171,6 +302,6 @@ public class Coelho
      */
     private boolean podeProcriar()
     {
-        return idade >= IDADE_REPRODUCAO;
+        return armazem.obterIdade(id) >= campo.obterParametros().obterIdadeReproducao(Especie.COELHO);
     }
 }
\ No newline at end of file
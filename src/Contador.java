@@ -47,6 +47,15 @@ public class Contador
     {
         contagem++;
     }
+
+    /**
+     * Incrementa a contagem atual pela quantidade fornecida.
+     * @param quantidade Quanto incrementar.
+     */
+    public void incrementar(int quantidade)
+    {
+        contagem += quantidade;
+    }
     
     /**
      * Redefine a contagem atual para zero.
@@ -0,0 +1,212 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Grava dados em um canal usando uma thread em segundo plano, para que a
+ * thread da simulação não espere pelo disco (veja GravadorSerieTemporal e
+ * GravadorTrajetoria).
+ *
+ * Os dados são copiados para blocos de memória; os blocos cheios são
+ * gravados, na ordem em que foram preenchidos, pela thread de gravação, que
+ * depois os devolve como livres. Se o disco for mais lento que a simulação,
+ * a simulação espera apenas quando todos os blocos estiverem cheios.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class EscritaSegundoPlano implements AutoCloseable
+{
+    // O tamanho de cada bloco de memória, em bytes.
+    public static final int TAMANHO_BLOCO = 1 << 16;
+    // Quantos blocos podem estar em uso ao mesmo tempo.
+    private static final int NUMERO_BLOCOS = 8;
+    // Um bloco vazio que avisa a thread de gravação que não há mais dados.
+    private static final ByteBuffer FIM = ByteBuffer.allocate(0);
+
+    // O canal onde os blocos são gravados.
+    private final WritableByteChannel canal;
+    // Os blocos cheios, à espera de serem gravados, e os blocos livres.
+    private final BlockingQueue<ByteBuffer> cheios;
+    private final BlockingQueue<ByteBuffer> livres;
+    // A thread que grava os blocos cheios.
+    private final Thread gravacao;
+    // O primeiro erro ocorrido na gravação, ou null.
+    private volatile IOException erro;
+
+    // O bloco sendo preenchido.
+    private ByteBuffer bloco;
+    // Indica se a escrita já foi fechada.
+    private boolean fechada;
+
+    /**
+     * Inicia a gravação em segundo plano. O canal é fechado ao final.
+     * @param canal O canal onde os dados serão gravados.
+     * @param nome O nome da thread de gravação.
+     */
+    public EscritaSegundoPlano(WritableByteChannel canal, String nome)
+    {
+        this.canal = canal;
+        cheios = new ArrayBlockingQueue<>(NUMERO_BLOCOS + 1);
+        livres = new ArrayBlockingQueue<>(NUMERO_BLOCOS);
+        for(int i = 1; i < NUMERO_BLOCOS; i++) {
+            livres.add(criarBloco());
+        }
+        bloco = criarBloco();
+        gravacao = new Thread(this::gravarBlocos, nome);
+        gravacao.setDaemon(true);
+        gravacao.start();
+    }
+
+    /**
+     * Retorna o bloco sendo preenchido, garantindo que ele tenha espaço para
+     * o número de bytes fornecido. Os dados devem ser colocados no bloco
+     * retornado antes da próxima chamada a qualquer método desta classe.
+     * @param bytes Quantos bytes serão colocados. No máximo TAMANHO_BLOCO.
+     * @return O bloco, com ordem de bytes little-endian.
+     * @throws UncheckedIOException Se a gravação de um bloco anterior falhou.
+     */
+    public ByteBuffer reservar(int bytes)
+    {
+        verificar();
+        if(bloco.remaining() < bytes) {
+            enviarBloco();
+        }
+        return bloco;
+    }
+
+    /**
+     * Copia todos os bytes restantes do buffer fornecido, de qualquer tamanho.
+     * @param dados Os dados a serem gravados.
+     * @throws UncheckedIOException Se a gravação de um bloco anterior falhou.
+     */
+    public void escrever(ByteBuffer dados)
+    {
+        verificar();
+        while(dados.hasRemaining()) {
+            if(!bloco.hasRemaining()) {
+                enviarBloco();
+            }
+            int quantidade = Math.min(bloco.remaining(), dados.remaining());
+            bloco.put(bloco.position(), dados, dados.position(), quantidade);
+            bloco.position(bloco.position() + quantidade);
+            dados.position(dados.position() + quantidade);
+        }
+    }
+
+    /**
+     * Entrega os dados acumulados à thread de gravação, sem esperar por ela.
+     */
+    public void enviar()
+    {
+        if(!fechada && bloco.position() > 0) {
+            enviarBloco();
+        }
+    }
+
+    /**
+     * Grava os dados restantes, espera a gravação terminar e fecha o canal.
+     * @throws IOException Se a gravação de algum bloco falhou.
+     */
+    public void close() throws IOException
+    {
+        if(fechada) {
+            return;
+        }
+        enviar();
+        fechada = true;
+        try {
+            cheios.put(FIM);
+            gravacao.join();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Gravação em segundo plano interrompida", e);
+        }
+        if(erro != null) {
+            throw erro;
+        }
+    }
+
+    /**
+     * Verifica se a escrita ainda pode receber dados.
+     */
+    private void verificar()
+    {
+        if(fechada) {
+            throw new IllegalStateException("A gravação já foi fechada");
+        }
+        IOException e = erro;
+        if(e != null) {
+            throw new UncheckedIOException("Falha na gravação em segundo plano", e);
+        }
+    }
+
+    /**
+     * Entrega o bloco atual à thread de gravação e passa a preencher um bloco livre.
+     */
+    private void enviarBloco()
+    {
+        bloco.flip();
+        try {
+            cheios.put(bloco);
+            bloco = livres.take();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Gravação em segundo plano interrompida", e);
+        }
+    }
+
+    /**
+     * O trabalho da thread de gravação: grava os blocos cheios, na ordem em
+     * que foram preenchidos, e devolve-os como livres. Depois de um erro, os
+     * blocos são apenas devolvidos, para que a simulação não fique esperando.
+     */
+    private void gravarBlocos()
+    {
+        try {
+            ByteBuffer cheio;
+            while((cheio = cheios.take()) != FIM) {
+                if(erro == null) {
+                    try {
+                        while(cheio.hasRemaining()) {
+                            canal.write(cheio);
+                        }
+                    }
+                    catch(IOException e) {
+                        erro = e;
+                    }
+                }
+                cheio.clear();
+                livres.put(cheio);
+            }
+        }
+        catch(InterruptedException e) {
+            erro = new IOException("Gravação em segundo plano interrompida", e);
+        }
+        finally {
+            try {
+                canal.close();
+            }
+            catch(IOException e) {
+                if(erro == null) {
+                    erro = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Um bloco vazio, com ordem de bytes little-endian.
+     */
+    private static ByteBuffer criarBloco()
+    {
+        return ByteBuffer.allocateDirect(TAMANHO_BLOCO).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
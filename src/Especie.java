@@ -0,0 +1,72 @@
+/**
+ * As espécies de animais que podem ocupar o campo. Cada espécie tem um
+ * código pequeno, usado pelo campo para registrar o que há em cada
+ * posição sem precisar verificar a classe dos objetos.
+ * 
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public enum Especie
+{
+    COELHO(Coelho.class),
+    RAPOSA(Raposa.class);
+    
+    // O código usado para posições vazias do campo.
+    public static final byte VAZIO = 0;
+    // As espécies indexadas pelo seu código (a posição zero corresponde a VAZIO).
+    private static final Especie[] POR_CODIGO = { null, COELHO, RAPOSA };
+    
+    // A classe dos animais desta espécie.
+    private final Class<?> classe;
+    
+    /**
+     * Cria uma espécie.
+     * @param classe A classe dos animais desta espécie.
+     */
+    private Especie(Class<?> classe)
+    {
+        this.classe = classe;
+    }
+    
+    /**
+     * @return O código desta espécie (nunca é igual a VAZIO).
+     */
+    public byte obterCodigo()
+    {
+        return (byte) (ordinal() + 1);
+    }
+    
+    /**
+     * @return A classe dos animais desta espécie.
+     */
+    public Class<?> obterClasse()
+    {
+        return classe;
+    }
+    
+    /**
+     * Retorna a espécie com o código fornecido.
+     * @param codigo O código da espécie.
+     * @return A espécie, ou null se o código for VAZIO.
+     */
+    public static Especie comCodigo(byte codigo)
+    {
+        return POR_CODIGO[codigo];
+    }
+    
+    /**
+     * Retorna a espécie de um animal.
+     * @param animal O animal.
+     * @return A espécie do animal, ou null se ele não for de nenhuma espécie conhecida.
+     */
+    public static Especie de(Object animal)
+    {
+        for(Especie especie : values()) {
+            if(especie.classe == animal.getClass()) {
+                return especie;
+            }
+        }
+        return null;
+    }
+}
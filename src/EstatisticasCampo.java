@@ -65,6 +65,16 @@ public class EstatisticasCampo
      * @param classeAnimal A classe do animal a ser incrementada.
      */
     public void incrementarContagem(Class<?> classeAnimal)
+    {
+        incrementarContagem(classeAnimal, 1);
+    }
+
+    /**
+     * Incrementa a contagem para uma classe de animal pela quantidade fornecida.
+     * @param classeAnimal A classe do animal a ser incrementada.
+     * @param quantidade Quanto incrementar.
+     */
+    public void incrementarContagem(Class<?> classeAnimal, int quantidade)
     {
         Contador contador = contadores.get(classeAnimal);
         if(contador == null) {
@@ -73,7 +83,7 @@ public class EstatisticasCampo
             contador = new Contador(classeAnimal.getName());
             contadores.put(classeAnimal, contador);
         }
-        contador.incrementar();
+        contador.incrementar(quantidade);
     }
 
     /**
@@ -107,20 +117,17 @@ public class EstatisticasCampo
     
     /**
      * Gera contagens do número de raposas e coelhos.
-     * Essas contagens não são mantidas atualizadas à medida que raposas e coelhos
-     * são colocados no campo, mas apenas quando uma solicitação
-     * é feita para obter as informações.
+     * As populações são mantidas pelo campo a cada nascimento e morte, então
+     * basta copiá-las, sem percorrer o campo.
      * @param campo O campo para o qual gerar as estatísticas.
      */
     private void gerarContagens(Campo campo)
     {
         reiniciar();
-        for(int linha = 0; linha < campo.obterComprimento(); linha++) {
-            for(int coluna = 0; coluna < campo.obterLargura(); coluna++) {
-                Object animal = campo.obterObjetoEm(linha, coluna);
-                if(animal != null) {
-                    incrementarContagem(animal.getClass());
-                }
+        for(Especie especie : Especie.values()) {
+            int contagem = campo.obterPopulacao(especie);
+            if(contagem > 0) {
+                incrementarContagem(especie.obterClasse(), contagem);
             }
         }
         contagensValidas = true;
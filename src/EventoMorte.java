@@ -0,0 +1,77 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+
+/**
+ * Um evento do Java Flight Recorder para a morte de um coelho ou de uma
+ * raposa, com a sua causa (os coelhos comidos por raposas têm a causa
+ * PREDACAO). Como há muitas mortes em cada passo, apenas uma amostra
+ * delas é registrada (veja AmostragemEventos).
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+@Name("raposasecoelhos.Morte")
+@Label("Morte")
+@Category("Raposas e Coelhos")
+@Description("A morte de um coelho ou de uma raposa (apenas uma amostra das mortes é registrada)")
+@StackTrace(false)
+public class EventoMorte extends Event
+{
+    // O tipo deste evento, consultado para não criar eventos desnecessários.
+    private static final EventType TIPO = EventType.getEventType(EventoMorte.class);
+
+    @Label("Espécie")
+    String especie;
+
+    @Label("Causa")
+    String causa;
+
+    @Label("Idade")
+    int idade;
+
+    @Label("Linha")
+    int linha;
+
+    @Label("Coluna")
+    int coluna;
+
+    /**
+     * Registra uma morte, se houver uma gravação em andamento e ela
+     * estiver na amostra.
+     * @param campo O campo.
+     * @param especie A espécie do animal.
+     * @param causa A causa da morte.
+     * @param localizacao O índice da localização do animal.
+     * @param idade A idade do animal.
+     */
+    public static void registrar(Campo campo, Especie especie, CausaMorte causa, int localizacao, int idade)
+    {
+        if(TIPO.isEnabled()) {
+            EventoMorte evento = new EventoMorte();
+            evento.especie = especie.name();
+            evento.causa = causa.name();
+            evento.idade = idade;
+            evento.linha = localizacao / campo.obterLargura();
+            evento.coluna = localizacao % campo.obterLargura();
+            evento.commit();
+        }
+    }
+
+    /**
+     * Decide se o evento está na amostra.
+     */
+    @Label("Amostragem")
+    @Description("Registra uma a cada N mortes")
+    @SettingDefinition
+    protected boolean amostragem(AmostragemEventos amostragem)
+    {
+        return amostragem.aceitar();
+    }
+}
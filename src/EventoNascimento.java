@@ -0,0 +1,71 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+
+/**
+ * Um evento do Java Flight Recorder para uma ninhada de coelhos ou de
+ * raposas. Como há muitos nascimentos em cada passo, apenas uma amostra
+ * deles é registrada (veja AmostragemEventos).
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+@Name("raposasecoelhos.Nascimento")
+@Label("Nascimento")
+@Category("Raposas e Coelhos")
+@Description("Uma ninhada de coelhos ou de raposas (apenas uma amostra das ninhadas é registrada)")
+@StackTrace(false)
+public class EventoNascimento extends Event
+{
+    // O tipo deste evento, consultado para não criar eventos desnecessários.
+    private static final EventType TIPO = EventType.getEventType(EventoNascimento.class);
+
+    @Label("Espécie")
+    String especie;
+
+    @Label("Linha")
+    int linha;
+
+    @Label("Coluna")
+    int coluna;
+
+    @Label("Filhotes")
+    int filhotes;
+
+    /**
+     * Registra uma ninhada, se houver uma gravação em andamento e ela
+     * estiver na amostra.
+     * @param campo O campo.
+     * @param especie A espécie dos filhotes.
+     * @param localizacao O índice da localização de quem os teve.
+     * @param filhotes O número de filhotes.
+     */
+    public static void registrar(Campo campo, Especie especie, int localizacao, int filhotes)
+    {
+        if(TIPO.isEnabled()) {
+            EventoNascimento evento = new EventoNascimento();
+            evento.especie = especie.name();
+            evento.linha = localizacao / campo.obterLargura();
+            evento.coluna = localizacao % campo.obterLargura();
+            evento.filhotes = filhotes;
+            evento.commit();
+        }
+    }
+
+    /**
+     * Decide se o evento está na amostra.
+     */
+    @Label("Amostragem")
+    @Description("Registra uma a cada N ninhadas")
+    @SettingDefinition
+    protected boolean amostragem(AmostragemEventos amostragem)
+    {
+        return amostragem.aceitar();
+    }
+}
@@ -0,0 +1,74 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Um evento do Java Flight Recorder para cada passo da simulação, com a
+ * duração do passo e das suas fases e a população ao final dele. Assim,
+ * uma gravação mostra a dinâmica do modelo ao lado das pausas do coletor
+ * de lixo e das alocações. Quando nenhuma gravação está em andamento, o
+ * evento quase não tem custo.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+@Name("raposasecoelhos.Passo")
+@Label("Passo da simulação")
+@Category("Raposas e Coelhos")
+@Description("Um passo da simulação, com a duração das suas fases e a população ao final dele")
+@StackTrace(false)
+public class EventoPasso extends Event
+{
+    @Label("Passo")
+    int passo;
+
+    @Label("Tempo dos coelhos")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoCoelhos;
+
+    @Label("Tempo das raposas")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoRaposas;
+
+    @Label("Tempo da junção das listas")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoJuncao;
+
+    @Label("Tempo dos observadores")
+    @Timespan(Timespan.NANOSECONDS)
+    long tempoObservadores;
+
+    @Label("Coelhos")
+    int coelhos;
+
+    @Label("Raposas")
+    int raposas;
+
+    /**
+     * Termina o evento e, se ele for registrado, preenche-o com os tempos
+     * das fases do passo atual (veja MetricasSimulacao) e a população do
+     * campo. Deve ser chamado antes de concluir o passo nas métricas.
+     * @param passo O número do passo.
+     * @param campo O campo da simulação.
+     */
+    public void registrar(int passo, Campo campo)
+    {
+        end();
+        if(shouldCommit()) {
+            MetricasSimulacao metricas = campo.obterMetricas();
+            this.passo = passo;
+            tempoCoelhos = metricas.obterTempoPasso(FasePasso.COELHOS);
+            tempoRaposas = metricas.obterTempoPasso(FasePasso.RAPOSAS);
+            tempoJuncao = metricas.obterTempoPasso(FasePasso.JUNCAO);
+            tempoObservadores = metricas.obterTempoPasso(FasePasso.OBSERVADORES);
+            coelhos = campo.obterPopulacao(Especie.COELHO);
+            raposas = campo.obterPopulacao(Especie.RAPOSA);
+            commit();
+        }
+    }
+}
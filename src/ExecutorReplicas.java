@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executa várias réplicas independentes da mesma configuração da simulação
+ * ao mesmo tempo, sem nenhuma janela, e reúne as populações de cada
+ * espécie a cada passo (veja ResultadoReplicas).
+ *
+ * Cada réplica tem o seu próprio Simulador, com o seu próprio campo e o seu
+ * próprio Randomizador, derivado de uma semente mestra (veja
+ * Randomizador.derivar). As réplicas não compartilham nenhum estado, de modo
+ * que o resultado de cada uma depende apenas da semente mestra e do seu
+ * índice, e não do número de threads ou da ordem de execução.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class ExecutorReplicas
+{
+    // Os parâmetros do modelo usados por todas as réplicas.
+    private ParametrosSimulacao parametros;
+    // Quantos passos simular em cada réplica.
+    private int numPassos;
+    // O número de threads usadas para executar as réplicas.
+    private int paralelismo;
+
+    /**
+     * Cria um executor de réplicas que usa todos os processadores disponíveis.
+     * @param comprimento O comprimento do campo de cada réplica.
+     * @param largura A largura do campo de cada réplica.
+     * @param numPassos Quantos passos simular em cada réplica.
+     */
+    public ExecutorReplicas(int comprimento, int largura, int numPassos)
+    {
+        this(ParametrosSimulacao.padrao().comDimensoes(comprimento, largura), numPassos,
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Cria um executor de réplicas.
+     * @param parametros Os parâmetros do modelo usados por todas as réplicas.
+     * @param numPassos Quantos passos simular em cada réplica.
+     * @param paralelismo O número de threads a usar. Deve ser maior que zero.
+     */
+    public ExecutorReplicas(ParametrosSimulacao parametros, int numPassos, int paralelismo)
+    {
+        if(paralelismo <= 0) {
+            throw new IllegalArgumentException("O número de threads deve ser maior que zero: " + paralelismo);
+        }
+        this.parametros = parametros;
+        this.numPassos = numPassos;
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Executa as réplicas e espera que todas terminem.
+     * @param numReplicas Quantas réplicas executar. Deve ser maior que zero.
+     * @param sementeMestra A semente da qual as sementes das réplicas são derivadas.
+     * @return As populações de todas as réplicas.
+     */
+    public ResultadoReplicas executar(int numReplicas, long sementeMestra)
+    {
+        if(numReplicas <= 0) {
+            throw new IllegalArgumentException("O número de réplicas deve ser maior que zero: " + numReplicas);
+        }
+        Randomizador mestre = new Randomizador(sementeMestra);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(paralelismo, numReplicas));
+        try {
+            List<Future<int[][]>> tarefas = new ArrayList<>();
+            for(int replica = 0; replica < numReplicas; replica++) {
+                Randomizador randomizador = mestre.derivar(replica);
+                tarefas.add(executor.submit(() -> executarReplica(randomizador)));
+            }
+            // Cada réplica é copiada para o resultado assim que termina, e a sua
+            // tarefa é esquecida para que as suas populações possam ser descartadas.
+            ResultadoReplicas resultado = new ResultadoReplicas(numReplicas, numPassos);
+            for(int replica = 0; replica < numReplicas; replica++) {
+                resultado.registrar(replica, tarefas.get(replica).get());
+                tarefas.set(replica, null);
+            }
+            return resultado;
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Execução das réplicas interrompida", e);
+        }
+        catch(ExecutionException e) {
+            throw new IllegalStateException("Falha ao executar uma réplica", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executa uma réplica.
+     * @param randomizador O randomizador da réplica.
+     * @return As populações, indexadas por código da espécie e passo.
+     */
+    private int[][] executarReplica(Randomizador randomizador)
+    {
+        Simulador simulador = new Simulador(parametros, randomizador);
+        int[][] populacoes = new int[Especie.values().length + 1][numPassos + 1];
+        registrar(simulador, populacoes, 0);
+        for(int passo = 1; passo <= numPassos; passo++) {
+            if(simulador.ehViavel()) {
+                simulador.simularUmPasso();
+            }
+            registrar(simulador, populacoes, passo);
+        }
+        simulador.encerrar();
+        return populacoes;
+    }
+
+    /**
+     * Registra as populações atuais de uma réplica.
+     */
+    private void registrar(Simulador simulador, int[][] populacoes, int passo)
+    {
+        Campo campo = simulador.obterCampo();
+        for(Especie especie : Especie.values()) {
+            populacoes[especie.obterCodigo()][passo] = campo.obterPopulacao(especie);
+        }
+    }
+
+    /**
+     * Executa réplicas e escreve, para cada passo e espécie, a média e alguns
+     * quantis da população, separados por ponto e vírgula.
+     * Argumentos opcionais: [réplicas] [passos] [comprimento] [largura] [semente].
+     */
+    public static void main(String[] args)
+    {
+        int numReplicas = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int numPassos = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        ParametrosSimulacao parametros = ParametrosSimulacao.padrao();
+        int comprimento = args.length > 2 ? Integer.parseInt(args[2]) : parametros.obterComprimento();
+        int largura = args.length > 3 ? Integer.parseInt(args[3]) : parametros.obterLargura();
+        long semente = args.length > 4 ? Long.parseLong(args[4]) : new Randomizador().obterSementeMestra();
+
+        ExecutorReplicas executor = new ExecutorReplicas(comprimento, largura, numPassos);
+        ResultadoReplicas resultado = executor.executar(numReplicas, semente);
+
+        System.out.println("passo;especie;media;q05;q25;mediana;q75;q95");
+        for(int passo = 0; passo <= resultado.obterNumeroPassos(); passo++) {
+            for(Especie especie : Especie.values()) {
+                System.out.printf(Locale.ROOT, "%d;%s;%.2f;%.1f;%.1f;%.1f;%.1f;%.1f%n", passo, especie.obterClasse().getName(),
+                                  resultado.obterMedia(especie, passo),
+                                  resultado.obterQuantil(especie, passo, 0.05),
+                                  resultado.obterQuantil(especie, passo, 0.25),
+                                  resultado.obterQuantil(especie, passo, 0.5),
+                                  resultado.obterQuantil(especie, passo, 0.75),
+                                  resultado.obterQuantil(especie, passo, 0.95));
+            }
+        }
+    }
+}
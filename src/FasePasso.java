@@ -0,0 +1,28 @@
+/**
+ * As partes de um passo da simulação cujo tempo é medido nas métricas da
+ * simulação (veja MetricasSimulacao).
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public enum FasePasso
+{
+    // O passo inteiro, incluindo os observadores.
+    PASSO,
+    // Os coelhos agem.
+    COELHOS,
+    // As raposas agem.
+    RAPOSAS,
+    // Os mortos são retirados das listas de animais (e, com várias threads,
+    // os recém-nascidos de cada faixa são acrescentados a elas).
+    JUNCAO,
+    // Os observadores são avisados do novo estado do campo (inclui as
+    // estatísticas e a preparação da pintura feitas por uma visão).
+    OBSERVADORES,
+    // Uma visão conta a população do campo.
+    ESTATISTICAS,
+    // Uma visão prepara e desenha a imagem do campo (o desenho é feito na
+    // thread de eventos do Swing, e conta para o passo em que ocorre).
+    PINTURA;
+}
@@ -0,0 +1,90 @@
+/**
+ * Guarda o conteúdo das posições de um campo: o código da espécie e o
+ * identificador do animal em cada posição, além de quais posições foram
+ * alteradas desde a última chamada a limparAlteracoes (veja Campo).
+ *
+ * As posições são indicadas pelo seu índice (linha * largura + coluna).
+ * Posições diferentes podem ser alteradas por threads diferentes ao mesmo
+ * tempo (veja PassoParalelo), desde que cada posição seja alterada por uma
+ * única thread.
+ *
+ * Há mais de uma forma de guardar esse conteúdo (veja TipoGrade): uma grade
+ * densa ocupa memória proporcional ao tamanho do campo, e uma grade em
+ * ladrilhos ocupa memória proporcional à área realmente ocupada.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public interface GradeCampo
+{
+    /**
+     * @param indice O índice de uma posição.
+     * @return O código da espécie na posição, ou Especie.VAZIO.
+     */
+    byte obterEspecie(int indice);
+
+    /**
+     * @param indice O índice de uma posição.
+     * @return O identificador do animal na posição. Não tem significado se
+     *         a posição estiver livre.
+     */
+    int obterId(int indice);
+
+    /**
+     * Coloca um animal em uma posição, substituindo o que houver nela, e
+     * marca a posição como alterada.
+     * @param indice O índice da posição.
+     * @param especie O código da espécie do animal.
+     * @param id O identificador do animal.
+     */
+    void colocar(int indice, byte especie, int id);
+
+    /**
+     * Esvazia uma posição e marca-a como alterada.
+     * @param indice O índice da posição.
+     */
+    void limpar(int indice);
+
+    /**
+     * Esvazia todas as posições e marca todas como alteradas.
+     */
+    void limparTudo();
+
+    /**
+     * Retorna o índice da primeira posição ocupada do intervalo fornecido.
+     * @param desde O índice a partir do qual procurar (inclusive).
+     * @param ate O índice até o qual procurar (exclusive).
+     * @return O índice da posição ocupada, ou Campo.NENHUMA se não houver.
+     */
+    int proximaOcupada(int desde, int ate);
+
+    /**
+     * Retorna o índice da primeira posição alterada a partir do índice fornecido.
+     * @param desde O índice a partir do qual procurar (inclusive).
+     * @return O índice da posição alterada, ou Campo.NENHUMA se não houver.
+     */
+    int proximaAlterada(int desde);
+
+    /**
+     * @param indice O índice de uma posição.
+     * @return Verdadeiro se a posição foi alterada desde a última chamada a limparAlteracoes.
+     */
+    boolean foiAlterada(int indice);
+
+    /**
+     * Esquece as alterações registradas.
+     */
+    void limparAlteracoes();
+
+    /**
+     * Copia os códigos das espécies de todas as posições, na ordem dos índices.
+     * @param destino O vetor que recebe os códigos.
+     */
+    void copiarEspecies(byte[] destino);
+
+    /**
+     * @return Uma estimativa da memória ocupada pela grade, em bytes.
+     */
+    long obterMemoriaUsada();
+}
@@ -0,0 +1,132 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Uma grade que guarda todas as posições do campo em vetores contínuos:
+ * um byte com o código da espécie e um inteiro com o identificador do
+ * animal por posição, e um mapa de bits com as posições alteradas. É a
+ * forma mais rápida de acessar as posições, mas ocupa memória proporcional
+ * ao tamanho do campo, mesmo que ele esteja quase vazio.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class GradeDensa implements GradeCampo
+{
+    // Permite marcar posições alteradas de forma atômica, pois posições de
+    // faixas diferentes (veja PassoParalelo) podem compartilhar uma palavra.
+    private static final VarHandle PALAVRAS_ALTERADAS =
+        MethodHandles.arrayElementVarHandle(long[].class);
+
+    // O código da espécie em cada posição (Especie.VAZIO se estiver livre).
+    private byte[] especies;
+    // O identificador, no armazém da sua espécie, do animal em cada posição.
+    private int[] ids;
+    // Um bit por índice, ligado se a posição foi alterada desde a última
+    // chamada a limparAlteracoes.
+    private long[] alteradas;
+
+    /**
+     * Cria uma grade vazia, com todas as posições marcadas como alteradas.
+     * @param tamanho O número de posições.
+     */
+    public GradeDensa(int tamanho)
+    {
+        especies = new byte[tamanho];
+        ids = new int[tamanho];
+        alteradas = new long[(tamanho + Long.SIZE - 1) / Long.SIZE];
+        Arrays.fill(alteradas, -1L);
+    }
+
+    public byte obterEspecie(int indice)
+    {
+        return especies[indice];
+    }
+
+    public int obterId(int indice)
+    {
+        return ids[indice];
+    }
+
+    public void colocar(int indice, byte especie, int id)
+    {
+        especies[indice] = especie;
+        ids[indice] = id;
+        marcarAlterada(indice);
+    }
+
+    public void limpar(int indice)
+    {
+        especies[indice] = Especie.VAZIO;
+        marcarAlterada(indice);
+    }
+
+    public void limparTudo()
+    {
+        Arrays.fill(especies, Especie.VAZIO);
+        Arrays.fill(alteradas, -1L);
+    }
+
+    public int proximaOcupada(int desde, int ate)
+    {
+        for(int indice = desde; indice < ate; indice++) {
+            if(especies[indice] != Especie.VAZIO) {
+                return indice;
+            }
+        }
+        return Campo.NENHUMA;
+    }
+
+    public int proximaAlterada(int desde)
+    {
+        int tamanho = especies.length;
+        if(desde >= tamanho) {
+            return Campo.NENHUMA;
+        }
+        int palavra = desde / Long.SIZE;
+        long bits = alteradas[palavra] & (-1L << desde);
+        while(bits == 0) {
+            palavra++;
+            if(palavra == alteradas.length) {
+                return Campo.NENHUMA;
+            }
+            bits = alteradas[palavra];
+        }
+        int indice = palavra * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        return indice < tamanho ? indice : Campo.NENHUMA;
+    }
+
+    public boolean foiAlterada(int indice)
+    {
+        return (alteradas[indice / Long.SIZE] & (1L << indice)) != 0;
+    }
+
+    public void limparAlteracoes()
+    {
+        Arrays.fill(alteradas, 0L);
+    }
+
+    public void copiarEspecies(byte[] destino)
+    {
+        System.arraycopy(especies, 0, destino, 0, especies.length);
+    }
+
+    public long obterMemoriaUsada()
+    {
+        return (long) especies.length * (Byte.BYTES + Integer.BYTES) + (long) alteradas.length * Long.BYTES;
+    }
+
+    /**
+     * Registra que a posição com o índice fornecido foi alterada.
+     */
+    private void marcarAlterada(int indice)
+    {
+        int palavra = indice / Long.SIZE;
+        long bit = 1L << indice;
+        if((alteradas[palavra] & bit) == 0) {
+            PALAVRAS_ALTERADAS.getAndBitwiseOr(alteradas, palavra, bit);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Uma grade densa cujas posições ficam fora do heap da JVM: os códigos das
+ * espécies, os identificadores dos animais e o mapa de bits das posições
+ * alteradas ficam em buffers diretos (ByteBuffer.allocateDirect) ou em um
+ * arquivo mapeado em memória. Assim, campos enormes não aumentam o heap nem
+ * o trabalho do coletor de lixo e, com um arquivo, podem até ser maiores que
+ * a memória física, pois o sistema operacional traz para a memória apenas
+ * as partes do arquivo em uso.
+ *
+ * Cada buffer tem no máximo 2 GiB, por isso os dados são divididos em
+ * regiões de TAMANHO_REGIAO bytes. Os buffers diretos contam para o limite
+ * -XX:MaxDirectMemorySize (que, por padrão, é igual ao tamanho máximo do
+ * heap). O conteúdo do arquivo é apenas a memória de trabalho da grade, e
+ * não um ponto de controle da simulação (veja PontoControle). Veja
+ * GradeCampo para a descrição dos métodos.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class GradeForaDoHeap implements GradeCampo
+{
+    // O tamanho de cada região é 2 elevado a este número.
+    private static final int BITS_REGIAO = 30;
+    // O tamanho de cada região, em bytes.
+    private static final int TAMANHO_REGIAO = 1 << BITS_REGIAO;
+    // O alinhamento do início de cada parte do arquivo, em bytes.
+    private static final long ALINHAMENTO = 4096;
+    // Quantos bytes preencher de cada vez ao esvaziar a grade.
+    private static final int TAMANHO_PREENCHIMENTO = 1 << 16;
+    // Permite marcar posições alteradas de forma atômica, pois posições de
+    // faixas diferentes (veja PassoParalelo) podem compartilhar uma palavra.
+    private static final VarHandle PALAVRAS_ALTERADAS =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // O número de posições.
+    private final int tamanho;
+    // O código da espécie em cada posição, um byte por posição.
+    private final ByteBuffer[] especies;
+    // O identificador do animal em cada posição, quatro bytes por posição.
+    private final ByteBuffer[] ids;
+    // Um bit por posição, ligado se a posição foi alterada.
+    private final ByteBuffer alteradas;
+    // Quantas palavras de 64 bits tem o mapa de alterações.
+    private final int numPalavras;
+
+    /**
+     * Cria uma grade vazia em buffers diretos, fora do heap, com todas as
+     * posições marcadas como alteradas.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     */
+    public GradeForaDoHeap(int comprimento, int largura)
+    {
+        tamanho = comprimento * largura;
+        numPalavras = (tamanho + Long.SIZE - 1) / Long.SIZE;
+        especies = alocarRegioes(tamanho);
+        ids = alocarRegioes((long) tamanho * Integer.BYTES);
+        alteradas = alocarRegioes((long) numPalavras * Long.BYTES)[0];
+        limparTudo();
+    }
+
+    /**
+     * Cria uma grade vazia em um arquivo mapeado em memória, com todas as
+     * posições marcadas como alteradas. O arquivo é criado (ou substituído)
+     * com o tamanho necessário e pode ser apagado quando a grade não for
+     * mais usada.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     * @param arquivo O arquivo que guardará as posições.
+     * @throws IOException Se não for possível criar ou mapear o arquivo.
+     */
+    public GradeForaDoHeap(int comprimento, int largura, Path arquivo) throws IOException
+    {
+        tamanho = comprimento * largura;
+        numPalavras = (tamanho + Long.SIZE - 1) / Long.SIZE;
+        long inicioAlteradas = alinhar(tamanho);
+        long inicioIds = alinhar(inicioAlteradas + (long) numPalavras * Long.BYTES);
+        try(FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Os mapeamentos continuam válidos depois que o canal é fechado.
+            especies = mapearRegioes(canal, 0, tamanho);
+            alteradas = mapearRegioes(canal, inicioAlteradas, (long) numPalavras * Long.BYTES)[0];
+            ids = mapearRegioes(canal, inicioIds, (long) tamanho * Integer.BYTES);
+        }
+        // Um arquivo novo já está zerado, isto é, com todas as posições livres.
+        preencher(alteradas, (long) numPalavras * Long.BYTES, (byte) -1);
+    }
+
+    public byte obterEspecie(int indice)
+    {
+        return especies[indice >>> BITS_REGIAO].get(indice & (TAMANHO_REGIAO - 1));
+    }
+
+    public int obterId(int indice)
+    {
+        long posicao = (long) indice * Integer.BYTES;
+        return ids[(int) (posicao >>> BITS_REGIAO)].getInt((int) posicao & (TAMANHO_REGIAO - 1));
+    }
+
+    public void colocar(int indice, byte especie, int id)
+    {
+        especies[indice >>> BITS_REGIAO].put(indice & (TAMANHO_REGIAO - 1), especie);
+        long posicao = (long) indice * Integer.BYTES;
+        ids[(int) (posicao >>> BITS_REGIAO)].putInt((int) posicao & (TAMANHO_REGIAO - 1), id);
+        marcarAlterada(indice);
+    }
+
+    public void limpar(int indice)
+    {
+        especies[indice >>> BITS_REGIAO].put(indice & (TAMANHO_REGIAO - 1), Especie.VAZIO);
+        marcarAlterada(indice);
+    }
+
+    public void limparTudo()
+    {
+        for(int r = 0; r < especies.length; r++) {
+            preencher(especies[r], especies[r].capacity(), Especie.VAZIO);
+        }
+        preencher(alteradas, (long) numPalavras * Long.BYTES, (byte) -1);
+    }
+
+    public int proximaOcupada(int desde, int ate)
+    {
+        for(int indice = desde; indice < ate; indice++) {
+            if(obterEspecie(indice) != Especie.VAZIO) {
+                return indice;
+            }
+        }
+        return Campo.NENHUMA;
+    }
+
+    public int proximaAlterada(int desde)
+    {
+        if(desde >= tamanho) {
+            return Campo.NENHUMA;
+        }
+        int palavra = desde / Long.SIZE;
+        long bits = alteradas.getLong(palavra * Long.BYTES) & (-1L << desde);
+        while(bits == 0) {
+            palavra++;
+            if(palavra == numPalavras) {
+                return Campo.NENHUMA;
+            }
+            bits = alteradas.getLong(palavra * Long.BYTES);
+        }
+        int indice = palavra * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        return indice < tamanho ? indice : Campo.NENHUMA;
+    }
+
+    public boolean foiAlterada(int indice)
+    {
+        return (alteradas.getLong(indice / Long.SIZE * Long.BYTES) & (1L << indice)) != 0;
+    }
+
+    public void limparAlteracoes()
+    {
+        preencher(alteradas, (long) numPalavras * Long.BYTES, (byte) 0);
+    }
+
+    public void copiarEspecies(byte[] destino)
+    {
+        int copiados = 0;
+        for(ByteBuffer regiao : especies) {
+            int quantidade = Math.min(regiao.capacity(), tamanho - copiados);
+            regiao.get(0, destino, copiados, quantidade);
+            copiados += quantidade;
+        }
+    }
+
+    public long obterMemoriaUsada()
+    {
+        return (long) tamanho * (Byte.BYTES + Integer.BYTES) + (long) numPalavras * Long.BYTES;
+    }
+
+    /**
+     * Registra que a posição com o índice fornecido foi alterada.
+     */
+    private void marcarAlterada(int indice)
+    {
+        int posicao = indice / Long.SIZE * Long.BYTES;
+        long bit = 1L << indice;
+        if((alteradas.getLong(posicao) & bit) == 0) {
+            PALAVRAS_ALTERADAS.getAndBitwiseOr(alteradas, posicao, bit);
+        }
+    }
+
+    /**
+     * Cria buffers diretos que guardam, juntos, o número de bytes fornecido.
+     */
+    private static ByteBuffer[] alocarRegioes(long bytes)
+    {
+        ByteBuffer[] regioes = new ByteBuffer[contarRegioes(bytes)];
+        for(int r = 0; r < regioes.length; r++) {
+            regioes[r] = ByteBuffer.allocateDirect(tamanhoRegiao(bytes, r)).order(ByteOrder.nativeOrder());
+        }
+        return regioes;
+    }
+
+    /**
+     * Mapeia, a partir da posição fornecida do arquivo, trechos que
+     * guardam, juntos, o número de bytes fornecido.
+     */
+    private static ByteBuffer[] mapearRegioes(FileChannel canal, long inicio, long bytes) throws IOException
+    {
+        ByteBuffer[] regioes = new ByteBuffer[contarRegioes(bytes)];
+        for(int r = 0; r < regioes.length; r++) {
+            regioes[r] = canal.map(FileChannel.MapMode.READ_WRITE, inicio + ((long) r << BITS_REGIAO),
+                                   tamanhoRegiao(bytes, r)).order(ByteOrder.nativeOrder());
+        }
+        return regioes;
+    }
+
+    /**
+     * @return Quantas regiões são necessárias para o número de bytes fornecido.
+     */
+    private static int contarRegioes(long bytes)
+    {
+        return (int) Math.max(1, (bytes + TAMANHO_REGIAO - 1) >>> BITS_REGIAO);
+    }
+
+    /**
+     * @return O tamanho, em bytes, da região r de um total de bytes fornecido.
+     */
+    private static int tamanhoRegiao(long bytes, int r)
+    {
+        return (int) Math.min(TAMANHO_REGIAO, bytes - ((long) r << BITS_REGIAO));
+    }
+
+    /**
+     * Preenche os primeiros bytes de um buffer com o valor fornecido.
+     */
+    private static void preencher(ByteBuffer buffer, long bytes, byte valor)
+    {
+        byte[] bloco = new byte[(int) Math.min(TAMANHO_PREENCHIMENTO, bytes)];
+        Arrays.fill(bloco, valor);
+        for(int posicao = 0; posicao < bytes; posicao += bloco.length) {
+            buffer.put(posicao, bloco, 0, (int) Math.min(bloco.length, bytes - posicao));
+        }
+    }
+
+    /**
+     * @return A primeira posição, a partir da fornecida, que é múltipla de ALINHAMENTO.
+     */
+    private static long alinhar(long posicao)
+    {
+        return (posicao + ALINHAMENTO - 1) / ALINHAMENTO * ALINHAMENTO;
+    }
+}
@@ -0,0 +1,391 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uma grade esparsa, dividida em ladrilhos quadrados de LADO x LADO
+ * posições. Um ladrilho só é criado quando alguma das suas posições é
+ * ocupada, e é descartado quando fica vazio. Assim, a memória usada é
+ * proporcional à área ocupada pelos animais, e não ao tamanho do campo, e
+ * campos enormes com populações concentradas cabem na memória.
+ *
+ * As buscas por posições ocupadas ou alteradas percorrem apenas os
+ * ladrilhos que existem (encontrados por um mapa de bits por faixa de
+ * ladrilhos), e esvaziar a grade apenas descarta os ladrilhos.
+ *
+ * Os ladrilhos vazios são descartados apenas em limparAlteracoes (no
+ * início de cada passo), para que as alterações das suas posições ainda
+ * possam ser consultadas até lá. Veja GradeCampo para a descrição dos métodos.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class GradeLadrilhos implements GradeCampo
+{
+    // O lado de cada ladrilho é 2 elevado a este número.
+    private static final int BITS_LADO = 6;
+    // O lado de cada ladrilho, em posições. Cada linha de um ladrilho tem
+    // uma palavra de 64 bits no seu mapa de alterações.
+    public static final int LADO = 1 << BITS_LADO;
+    // Quantas posições há em cada ladrilho.
+    private static final int POSICOES_LADRILHO = LADO * LADO;
+    // Uma estimativa da memória ocupada por um ladrilho, em bytes.
+    private static final long MEMORIA_LADRILHO =
+        POSICOES_LADRILHO * (Byte.BYTES + Integer.BYTES) + LADO * Long.BYTES + 128;
+    // Permite criar ladrilhos de forma atômica, pois threads diferentes (veja
+    // PassoParalelo) podem ocupar ao mesmo tempo posições do mesmo ladrilho.
+    private static final VarHandle LADRILHOS =
+        MethodHandles.arrayElementVarHandle(Ladrilho[].class);
+    // Permite marcar posições alteradas e ladrilhos existentes de forma atômica.
+    private static final VarHandle PALAVRAS =
+        MethodHandles.arrayElementVarHandle(long[].class);
+
+    // O comprimento e a largura do campo e o número de posições.
+    private final int comprimento, largura, tamanho;
+    // Quantos ladrilhos há em cada faixa horizontal de ladrilhos, e quantas
+    // palavras de 64 bits são necessárias para ter um bit por ladrilho da faixa.
+    private final int ladrilhosPorFaixa, palavrasPorFaixa;
+    // Os ladrilhos existentes (ou null), faixa a faixa, indexados por
+    // faixa * ladrilhosPorFaixa + coluna do ladrilho.
+    private final Ladrilho[] ladrilhos;
+    // Um bit por ladrilho, ligado se ele existe, com palavrasPorFaixa palavras por faixa.
+    private final long[] existentes;
+    // Indica se todas as posições contam como alteradas (depois de limparTudo).
+    private boolean todasAlteradas;
+
+    /**
+     * Cria uma grade vazia, com todas as posições marcadas como alteradas.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     */
+    public GradeLadrilhos(int comprimento, int largura)
+    {
+        this.comprimento = comprimento;
+        this.largura = largura;
+        tamanho = comprimento * largura;
+        ladrilhosPorFaixa = (largura + LADO - 1) >>> BITS_LADO;
+        palavrasPorFaixa = (ladrilhosPorFaixa + Long.SIZE - 1) / Long.SIZE;
+        int numFaixas = (comprimento + LADO - 1) >>> BITS_LADO;
+        ladrilhos = new Ladrilho[Math.multiplyExact(numFaixas, ladrilhosPorFaixa)];
+        existentes = new long[numFaixas * palavrasPorFaixa];
+        todasAlteradas = true;
+    }
+
+    public byte obterEspecie(int indice)
+    {
+        int linha = indice / largura;
+        int coluna = indice - linha * largura;
+        Ladrilho ladrilho = ladrilhos[indiceLadrilho(linha, coluna)];
+        if(ladrilho == null) {
+            return Especie.VAZIO;
+        }
+        return ladrilho.especies[posicaoNoLadrilho(linha, coluna)];
+    }
+
+    public int obterId(int indice)
+    {
+        int linha = indice / largura;
+        int coluna = indice - linha * largura;
+        Ladrilho ladrilho = ladrilhos[indiceLadrilho(linha, coluna)];
+        if(ladrilho == null) {
+            return ArmazemAnimais.NENHUM;
+        }
+        return ladrilho.ids[posicaoNoLadrilho(linha, coluna)];
+    }
+
+    public void colocar(int indice, byte especie, int id)
+    {
+        int linha = indice / largura;
+        int coluna = indice - linha * largura;
+        Ladrilho ladrilho = obterOuCriar(linha, coluna);
+        int posicao = posicaoNoLadrilho(linha, coluna);
+        if(ladrilho.especies[posicao] == Especie.VAZIO) {
+            ladrilho.ocupadas.incrementAndGet();
+            ladrilho.ocupadasPorLinha[linha & (LADO - 1)]++;
+        }
+        ladrilho.especies[posicao] = especie;
+        ladrilho.ids[posicao] = id;
+        ladrilho.marcarAlterada(linha, coluna);
+    }
+
+    public void limpar(int indice)
+    {
+        int linha = indice / largura;
+        int coluna = indice - linha * largura;
+        Ladrilho ladrilho = ladrilhos[indiceLadrilho(linha, coluna)];
+        // Sem ladrilho, a posição já está vazia e nada muda.
+        if(ladrilho != null) {
+            int posicao = posicaoNoLadrilho(linha, coluna);
+            if(ladrilho.especies[posicao] != Especie.VAZIO) {
+                ladrilho.ocupadas.decrementAndGet();
+                ladrilho.ocupadasPorLinha[linha & (LADO - 1)]--;
+                ladrilho.especies[posicao] = Especie.VAZIO;
+            }
+            ladrilho.marcarAlterada(linha, coluna);
+        }
+    }
+
+    public void limparTudo()
+    {
+        Arrays.fill(ladrilhos, null);
+        Arrays.fill(existentes, 0L);
+        todasAlteradas = true;
+    }
+
+    public int proximaOcupada(int desde, int ate)
+    {
+        return procurar(desde, ate, false);
+    }
+
+    public int proximaAlterada(int desde)
+    {
+        if(todasAlteradas) {
+            return desde < tamanho ? desde : Campo.NENHUMA;
+        }
+        return procurar(desde, tamanho, true);
+    }
+
+    public boolean foiAlterada(int indice)
+    {
+        if(todasAlteradas) {
+            return true;
+        }
+        int linha = indice / largura;
+        int coluna = indice - linha * largura;
+        Ladrilho ladrilho = ladrilhos[indiceLadrilho(linha, coluna)];
+        return ladrilho != null
+            && (ladrilho.alteradas[linha & (LADO - 1)] & (1L << coluna)) != 0;
+    }
+
+    public void limparAlteracoes()
+    {
+        todasAlteradas = false;
+        for(int i = 0; i < ladrilhos.length; i++) {
+            Ladrilho ladrilho = ladrilhos[i];
+            if(ladrilho != null) {
+                if(ladrilho.ocupadas.get() == 0) {
+                    // Descarta os ladrilhos que ficaram vazios.
+                    ladrilhos[i] = null;
+                    int faixa = i / ladrilhosPorFaixa;
+                    int coluna = i - faixa * ladrilhosPorFaixa;
+                    existentes[faixa * palavrasPorFaixa + coluna / Long.SIZE] &= ~(1L << coluna);
+                }
+                else if(ladrilho.alterado) {
+                    Arrays.fill(ladrilho.alteradas, 0L);
+                    ladrilho.alterado = false;
+                }
+            }
+        }
+    }
+
+    public void copiarEspecies(byte[] destino)
+    {
+        for(int linha = 0; linha < comprimento; linha++) {
+            for(int coluna = 0; coluna < largura; coluna += LADO) {
+                int quantidade = Math.min(LADO, largura - coluna);
+                int indice = linha * largura + coluna;
+                Ladrilho ladrilho = ladrilhos[indiceLadrilho(linha, coluna)];
+                if(ladrilho == null) {
+                    Arrays.fill(destino, indice, indice + quantidade, Especie.VAZIO);
+                }
+                else {
+                    System.arraycopy(ladrilho.especies, posicaoNoLadrilho(linha, coluna),
+                                     destino, indice, quantidade);
+                }
+            }
+        }
+    }
+
+    public long obterMemoriaUsada()
+    {
+        return obterNumeroLadrilhos() * MEMORIA_LADRILHO + (long) ladrilhos.length * Integer.BYTES
+               + (long) existentes.length * Long.BYTES;
+    }
+
+    /**
+     * @return Quantos ladrilhos existem no momento.
+     */
+    public int obterNumeroLadrilhos()
+    {
+        int numero = 0;
+        for(long palavra : existentes) {
+            numero += Long.bitCount(palavra);
+        }
+        return numero;
+    }
+
+    /**
+     * Retorna o ladrilho que contém uma posição, criando-o se ainda não existir.
+     */
+    private Ladrilho obterOuCriar(int linha, int coluna)
+    {
+        int indice = indiceLadrilho(linha, coluna);
+        Ladrilho ladrilho = ladrilhos[indice];
+        if(ladrilho == null) {
+            Ladrilho novo = new Ladrilho();
+            ladrilho = (Ladrilho) LADRILHOS.compareAndExchange(ladrilhos, indice, null, novo);
+            if(ladrilho == null) {
+                ladrilho = novo;
+                int colunaLadrilho = coluna >>> BITS_LADO;
+                PALAVRAS.getAndBitwiseOr(existentes,
+                                         (linha >>> BITS_LADO) * palavrasPorFaixa + colunaLadrilho / Long.SIZE,
+                                         1L << colunaLadrilho);
+            }
+        }
+        return ladrilho;
+    }
+
+    /**
+     * @return O índice, em ladrilhos, do ladrilho que contém a posição.
+     */
+    private int indiceLadrilho(int linha, int coluna)
+    {
+        return (linha >>> BITS_LADO) * ladrilhosPorFaixa + (coluna >>> BITS_LADO);
+    }
+
+    /**
+     * @return A posição, dentro do seu ladrilho, de uma posição do campo.
+     */
+    private static int posicaoNoLadrilho(int linha, int coluna)
+    {
+        return ((linha & (LADO - 1)) << BITS_LADO) | (coluna & (LADO - 1));
+    }
+
+    /**
+     * Retorna o índice da primeira posição ocupada (ou alterada) do
+     * intervalo fornecido. Percorre as linhas em ordem, mas em cada linha
+     * apenas os trechos dos ladrilhos existentes.
+     * @param desde O índice a partir do qual procurar (inclusive).
+     * @param ate O índice até o qual procurar (exclusive).
+     * @param alteradas Se verdadeiro, procura posições alteradas; caso
+     *                  contrário, posições ocupadas.
+     * @return O índice encontrado, ou Campo.NENHUMA.
+     */
+    private int procurar(int desde, int ate, boolean alteradas)
+    {
+        if(desde >= ate) {
+            return Campo.NENHUMA;
+        }
+        int linha = desde / largura;
+        int coluna = desde - linha * largura;
+        while(linha < comprimento) {
+            long inicioLinha = (long) linha * largura;
+            if(inicioLinha >= ate) {
+                return Campo.NENHUMA;
+            }
+            int faixa = linha >>> BITS_LADO;
+            int primeiraPalavra = faixa * palavrasPorFaixa;
+            int colunaLadrilho = coluna >>> BITS_LADO;
+            int linhaNoLadrilho = linha & (LADO - 1);
+            boolean faixaVazia = true;
+            for(int p = colunaLadrilho / Long.SIZE; p < palavrasPorFaixa; p++) {
+                long bits = existentes[primeiraPalavra + p];
+                if(bits != 0) {
+                    faixaVazia = false;
+                }
+                if(p == colunaLadrilho / Long.SIZE) {
+                    bits &= -1L << colunaLadrilho;
+                }
+                while(bits != 0) {
+                    int t = p * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    Ladrilho ladrilho = ladrilhos[faixa * ladrilhosPorFaixa + t];
+                    int inicio = Math.max(coluna, t << BITS_LADO);
+                    if(inicioLinha + inicio >= ate) {
+                        return Campo.NENHUMA;
+                    }
+                    if(ladrilho == null) {
+                        continue;
+                    }
+                    int encontrada = alteradas ? ladrilho.procurarAlterada(linhaNoLadrilho, inicio)
+                                               : ladrilho.procurarOcupada(linhaNoLadrilho, inicio,
+                                                                          Math.min((t + 1) << BITS_LADO, largura));
+                    if(encontrada >= 0) {
+                        long indice = inicioLinha + (t << BITS_LADO) + encontrada;
+                        return indice < ate ? (int) indice : Campo.NENHUMA;
+                    }
+                }
+            }
+            if(faixaVazia && coluna == 0) {
+                // Nenhum ladrilho na faixa: pula as suas linhas restantes.
+                linha = (faixa + 1) << BITS_LADO;
+            }
+            else {
+                linha++;
+            }
+            coluna = 0;
+        }
+        return Campo.NENHUMA;
+    }
+
+    /**
+     * As posições de um ladrilho, linha a linha.
+     */
+    private static class Ladrilho
+    {
+        // O código da espécie e o identificador do animal em cada posição.
+        final byte[] especies = new byte[POSICOES_LADRILHO];
+        final int[] ids = new int[POSICOES_LADRILHO];
+        // Um bit por posição, uma palavra por linha, ligado se a posição foi alterada.
+        final long[] alteradas = new long[LADO];
+        // Quantas posições estão ocupadas.
+        final AtomicInteger ocupadas = new AtomicInteger();
+        // Quantas posições estão ocupadas em cada linha. Cada linha do campo
+        // só é alterada por uma thread de cada vez, então não é preciso
+        // sincronizar estes contadores.
+        final int[] ocupadasPorLinha = new int[LADO];
+        // Indica se alguma posição foi alterada.
+        boolean alterado;
+
+        /**
+         * Procura, em uma linha do ladrilho, a primeira posição ocupada.
+         * @param linha A linha dentro do ladrilho.
+         * @param inicio A coluna do campo a partir da qual procurar.
+         * @param fim A coluna do campo até a qual procurar (exclusive).
+         * @return A coluna, dentro do ladrilho, da posição ocupada, ou -1.
+         */
+        int procurarOcupada(int linha, int inicio, int fim)
+        {
+            if(ocupadasPorLinha[linha] == 0) {
+                return -1;
+            }
+            int base = linha << BITS_LADO;
+            for(int coluna = inicio & (LADO - 1), ultima = ((fim - 1) & (LADO - 1)); coluna <= ultima; coluna++) {
+                if(especies[base + coluna] != Especie.VAZIO) {
+                    return coluna;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Procura, em uma linha do ladrilho, a primeira posição alterada.
+         * @param linha A linha dentro do ladrilho.
+         * @param inicio A coluna do campo a partir da qual procurar.
+         * @return A coluna, dentro do ladrilho, da posição alterada, ou -1.
+         */
+        int procurarAlterada(int linha, int inicio)
+        {
+            if(!alterado) {
+                return -1;
+            }
+            long bits = alteradas[linha] & (-1L << inicio);
+            return bits != 0 ? Long.numberOfTrailingZeros(bits) : -1;
+        }
+
+        /**
+         * Registra que uma posição do ladrilho foi alterada.
+         */
+        void marcarAlterada(int linha, int coluna)
+        {
+            int palavra = linha & (LADO - 1);
+            long bit = 1L << coluna;
+            if((alteradas[palavra] & bit) == 0) {
+                PALAVRAS.getAndBitwiseOr(alteradas, palavra, bit);
+            }
+            alterado = true;
+        }
+    }
+}
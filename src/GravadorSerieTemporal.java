@@ -0,0 +1,251 @@
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Um observador da simulação que grava, a cada passo, a população de cada
+ * espécie e quantos animais de cada espécie nasceram, morreram e foram
+ * comidos naquele passo, em um arquivo binário compacto (opcionalmente
+ * comprimido com GZIP).
+ *
+ * A thread da simulação apenas copia alguns inteiros para um bloco de
+ * memória; os blocos cheios são gravados (e comprimidos) por uma thread em
+ * segundo plano (veja EscritaSegundoPlano). Assim, execuções com milhões de
+ * passos produzem uma série temporal completa sem formatar textos e sem
+ * esperar pelo disco a cada passo.
+ *
+ * O arquivo começa com um cabeçalho (assinatura, versão e os códigos das
+ * espécies) seguido de um registro de tamanho fixo por passo: o número do
+ * passo e, para cada espécie, população, nascimentos, mortes e predações,
+ * todos inteiros de 32 bits little-endian. As mortes incluem os animais
+ * comidos. O primeiro registro de uma execução (passo zero, ou o passo em
+ * que o gravador foi anexado) não tem eventos. Use o método main para
+ * converter o arquivo em texto.
+ *
+ * O gravador deve ser fechado ao final, para que os últimos registros
+ * sejam gravados.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class GravadorSerieTemporal implements ObservadorSimulacao, AutoCloseable
+{
+    // Identifica os arquivos de séries temporais ("RCST").
+    private static final int ASSINATURA = 0x52435354;
+    // A versão do formato do arquivo.
+    private static final int VERSAO = 1;
+    // Quantos inteiros são gravados por espécie em cada registro.
+    private static final int DADOS_POR_ESPECIE = 4;
+    // O tamanho dos buffers usados na leitura, em bytes.
+    private static final int TAMANHO_BLOCO = EscritaSegundoPlano.TAMANHO_BLOCO;
+
+    // O tamanho de cada registro, em bytes.
+    private final int tamanhoRegistro;
+    // Grava os registros em segundo plano.
+    private final EscritaSegundoPlano escrita;
+    // Os totais de nascimentos, mortes e predações de cada espécie no
+    // último registro, indexados pelo código da espécie.
+    private long[] nascimentosAnteriores;
+    private long[] mortesAnteriores;
+    private long[] predacoesAnteriores;
+    // O campo do último registro, ou null antes do primeiro registro.
+    private Campo campoAnterior;
+
+    /**
+     * Cria um gravador de séries temporais, substituindo o arquivo fornecido.
+     * @param arquivo O arquivo a ser gravado.
+     * @param comprimir Se verdadeiro, o arquivo é comprimido com GZIP.
+     * @throws IOException Se não for possível criar o arquivo.
+     */
+    public GravadorSerieTemporal(Path arquivo, boolean comprimir) throws IOException
+    {
+        Especie[] especies = Especie.values();
+        tamanhoRegistro = Integer.BYTES * (1 + DADOS_POR_ESPECIE * especies.length);
+        WritableByteChannel canal;
+        if(comprimir) {
+            canal = Channels.newChannel(new GZIPOutputStream(Files.newOutputStream(arquivo), TAMANHO_BLOCO));
+        }
+        else {
+            canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                     StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        escrita = new EscritaSegundoPlano(canal, "gravador-serie-temporal");
+        int numCodigos = especies.length + 1;
+        nascimentosAnteriores = new long[numCodigos];
+        mortesAnteriores = new long[numCodigos];
+        predacoesAnteriores = new long[numCodigos];
+
+        ByteBuffer cabecalho = escrita.reservar(Integer.BYTES * (3 + especies.length));
+        cabecalho.putInt(ASSINATURA);
+        cabecalho.putInt(VERSAO);
+        cabecalho.putInt(especies.length);
+        for(Especie especie : especies) {
+            cabecalho.putInt(especie.obterCodigo());
+        }
+    }
+
+    /**
+     * Registra as populações e os eventos do passo.
+     * @param passo O passo da simulação.
+     * @param campo O campo da simulação.
+     * @throws UncheckedIOException Se a gravação de um registro anterior falhou.
+     */
+    public void mostrarStatus(int passo, Campo campo)
+    {
+        ByteBuffer bloco = escrita.reservar(tamanhoRegistro);
+        // Uma nova execução (ou um novo campo) começa sem eventos.
+        boolean inicio = passo == 0 || campo != campoAnterior;
+        campoAnterior = campo;
+        bloco.putInt(passo);
+        for(Especie especie : Especie.values()) {
+            int codigo = especie.obterCodigo();
+            long nascimentos = campo.obterTotalNascimentos(especie);
+            long mortes = campo.obterTotalMortes(especie);
+            long predacoes = campo.obterTotalPredacoes(especie);
+            if(inicio) {
+                nascimentosAnteriores[codigo] = nascimentos;
+                mortesAnteriores[codigo] = mortes;
+                predacoesAnteriores[codigo] = predacoes;
+            }
+            bloco.putInt(campo.obterPopulacao(especie));
+            bloco.putInt((int) (nascimentos - nascimentosAnteriores[codigo]));
+            bloco.putInt((int) (mortes - mortesAnteriores[codigo]));
+            bloco.putInt((int) (predacoes - predacoesAnteriores[codigo]));
+            nascimentosAnteriores[codigo] = nascimentos;
+            mortesAnteriores[codigo] = mortes;
+            predacoesAnteriores[codigo] = predacoes;
+        }
+    }
+
+    /**
+     * Envia os registros acumulados para a gravação, sem esperar por ela.
+     */
+    public void simulacaoConcluida()
+    {
+        escrita.enviar();
+    }
+
+    /**
+     * Grava os registros restantes, espera a gravação terminar e fecha o arquivo.
+     * Depois disso, o gravador deve ser removido da simulação.
+     * @throws IOException Se a gravação de algum registro falhou.
+     */
+    public void close() throws IOException
+    {
+        escrita.close();
+    }
+
+    /**
+     * Lê um arquivo gravado por um GravadorSerieTemporal (comprimido ou não)
+     * e escreve um registro por linha, com os valores separados por ponto e
+     * vírgula.
+     * @param arquivo O arquivo a ser lido.
+     * @param saida Onde escrever o texto.
+     * @throws IOException Se não for possível ler o arquivo ou se ele não for
+     *                     uma série temporal válida.
+     */
+    public static void converterParaTexto(Path arquivo, PrintStream saida) throws IOException
+    {
+        InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo), TAMANHO_BLOCO);
+        entrada.mark(2);
+        boolean comprimido = entrada.read() == 0x1f && entrada.read() == 0x8b;
+        entrada.reset();
+        if(comprimido) {
+            entrada = new GZIPInputStream(entrada, TAMANHO_BLOCO);
+        }
+        try(ReadableByteChannel canal = Channels.newChannel(entrada)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BLOCO).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            if(!preencher(canal, buffer, 3 * Integer.BYTES) || buffer.getInt() != ASSINATURA) {
+                throw new IOException("O arquivo não é uma série temporal: " + arquivo);
+            }
+            int versao = buffer.getInt();
+            if(versao != VERSAO) {
+                throw new IOException("Versão de série temporal não suportada: " + versao);
+            }
+            int numEspecies = buffer.getInt();
+            if(numEspecies <= 0 || numEspecies > Especie.values().length
+               || !preencher(canal, buffer, numEspecies * Integer.BYTES)) {
+                throw new IOException("Cabeçalho de série temporal inválido: " + arquivo);
+            }
+            StringBuilder cabecalho = new StringBuilder("passo");
+            for(int i = 0; i < numEspecies; i++) {
+                int codigo = buffer.getInt();
+                if(codigo <= Especie.VAZIO || codigo > Especie.values().length) {
+                    throw new IOException("Código de espécie inválido na série temporal: " + codigo);
+                }
+                Especie especie = Especie.comCodigo((byte) codigo);
+                String nome = especie.obterClasse().getName();
+                cabecalho.append(';').append(nome).append(";nascimentos_").append(nome)
+                         .append(";mortes_").append(nome).append(";predacoes_").append(nome);
+            }
+            saida.println(cabecalho);
+
+            int tamanhoRegistro = Integer.BYTES * (1 + DADOS_POR_ESPECIE * numEspecies);
+            StringBuilder linha = new StringBuilder();
+            while(preencher(canal, buffer, tamanhoRegistro)) {
+                linha.setLength(0);
+                linha.append(buffer.getInt());
+                for(int i = 0; i < DADOS_POR_ESPECIE * numEspecies; i++) {
+                    linha.append(';').append(buffer.getInt());
+                }
+                saida.println(linha);
+            }
+            if(buffer.hasRemaining()) {
+                throw new IOException("Fim inesperado da série temporal: " + arquivo);
+            }
+        }
+    }
+
+    /**
+     * Garante que o buffer tenha o número de bytes fornecido para leitura,
+     * lendo mais dados do canal se necessário.
+     * @return false se o canal terminou antes.
+     * @throws IOException Se o número de bytes não couber no buffer.
+     */
+    private static boolean preencher(ReadableByteChannel canal, ByteBuffer buffer, int bytes) throws IOException
+    {
+        if(bytes > buffer.capacity()) {
+            throw new IOException("Registro grande demais na série temporal: " + bytes + " bytes");
+        }
+        if(buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        while(buffer.position() < bytes) {
+            if(canal.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * Converte um arquivo de série temporal em texto, escrito na saída padrão.
+     * Argumento: o arquivo a ser convertido.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length != 1) {
+            System.err.println("Uso: java GravadorSerieTemporal <arquivo>");
+            System.exit(1);
+        }
+        converterParaTexto(Path.of(args[0]), System.out);
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Um observador da simulação que grava a trajetória completa do campo: o
+ * conteúdo de cada posição a cada passo. A trajetória pode depois ser
+ * reproduzida, em qualquer passo, sem executar o modelo novamente (veja
+ * ReprodutorTrajetoria).
+ *
+ * Cada passo é gravado como um quadro. Um quadro-chave contém o campo
+ * inteiro; os demais quadros contêm apenas as posições que mudaram desde o
+ * quadro anterior (os movimentos, nascimentos, mortes e caças do passo),
+ * encontradas através das alterações registradas pelo campo (veja
+ * Campo.proximaAlterada), sem percorrer o campo inteiro. Um quadro-chave é
+ * gravado a cada intervalo de quadros, no primeiro passo observado e
+ * quando a simulação é reiniciada.
+ *
+ * Formato: um cabeçalho de cinco inteiros de 32 bits little-endian
+ * (assinatura, versão, comprimento, largura e intervalo entre
+ * quadros-chave), seguido dos quadros. Cada quadro começa com um byte com o
+ * seu tipo, o passo e o tamanho dos dados do quadro em bytes (ambos como
+ * varints, isto é, inteiros de tamanho variável com 7 bits por byte). Os
+ * dados são uma sequência de varints, cada um com um número nos bits mais
+ * altos e o código de uma espécie nos BITS_CODIGO bits mais baixos: nos
+ * quadros-chave, o número é o comprimento de uma sequência de posições
+ * consecutivas com a mesma espécie; nos demais, é a distância desde a
+ * posição alterada anterior.
+ *
+ * Os quadros são gravados por uma thread em segundo plano (veja
+ * EscritaSegundoPlano). O gravador deve ser fechado ao final, para que os
+ * últimos quadros sejam gravados.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class GravadorTrajetoria implements ObservadorSimulacao, AutoCloseable
+{
+    // Identifica os arquivos de trajetórias ("RCTR").
+    public static final int ASSINATURA = 0x52435452;
+    // A versão do formato do arquivo.
+    public static final int VERSAO = 1;
+    // O tamanho do cabeçalho do arquivo, em bytes.
+    public static final int TAMANHO_CABECALHO = 5 * Integer.BYTES;
+    // O tamanho máximo do início de um quadro: o tipo e dois varints.
+    public static final int MAXIMO_INICIO_QUADRO = 1 + 2 * 5;
+    // Os tipos de quadro.
+    public static final byte QUADRO_ALTERACOES = 0;
+    public static final byte QUADRO_CHAVE = 1;
+    // Quantos bits de cada varint guardam o código da espécie.
+    public static final int BITS_CODIGO = 2;
+    // O intervalo padrão entre quadros-chave.
+    public static final int INTERVALO_PADRAO = 256;
+    // O tamanho máximo de um varint com um número de até 35 bits.
+    private static final int MAXIMO_VARINT = 5;
+
+    // Grava os quadros em segundo plano.
+    private final EscritaSegundoPlano escrita;
+    // As dimensões do campo.
+    private final int comprimento, largura;
+    // Quantos quadros gravar entre dois quadros-chave.
+    private final int intervaloQuadroChave;
+    // O conteúdo do campo no último quadro gravado.
+    private final byte[] especies;
+    // Os dados do quadro sendo montado.
+    private ByteBuffer dados;
+    // O campo do último quadro, ou null antes do primeiro quadro.
+    private Campo campoAnterior;
+    // Quantos quadros foram gravados desde o último quadro-chave.
+    private int quadrosDesdeChave;
+
+    /**
+     * Cria um gravador de trajetórias, substituindo o arquivo fornecido.
+     * @param arquivo O arquivo a ser gravado.
+     * @param comprimento O comprimento do campo a ser gravado.
+     * @param largura A largura do campo a ser gravado.
+     * @param intervaloQuadroChave Quantos quadros gravar entre dois
+     *        quadros-chave. Deve ser maior que zero. Intervalos menores deixam
+     *        o arquivo maior, mas a reprodução de um passo qualquer mais rápida.
+     * @throws IOException Se não for possível criar o arquivo.
+     */
+    public GravadorTrajetoria(Path arquivo, int comprimento, int largura, int intervaloQuadroChave)
+        throws IOException
+    {
+        if(intervaloQuadroChave <= 0) {
+            throw new IllegalArgumentException("O intervalo entre quadros-chave deve ser maior que zero: "
+                                               + intervaloQuadroChave);
+        }
+        if(Especie.values().length >= 1 << BITS_CODIGO) {
+            throw new IllegalStateException("Espécies demais para o formato da trajetória");
+        }
+        this.comprimento = comprimento;
+        this.largura = largura;
+        this.intervaloQuadroChave = intervaloQuadroChave;
+        especies = new byte[comprimento * largura];
+        dados = ByteBuffer.allocate(EscritaSegundoPlano.TAMANHO_BLOCO).order(ByteOrder.LITTLE_ENDIAN);
+        escrita = new EscritaSegundoPlano(
+            FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                             StandardOpenOption.TRUNCATE_EXISTING),
+            "gravador-trajetoria");
+        ByteBuffer cabecalho = escrita.reservar(TAMANHO_CABECALHO);
+        cabecalho.putInt(ASSINATURA);
+        cabecalho.putInt(VERSAO);
+        cabecalho.putInt(comprimento);
+        cabecalho.putInt(largura);
+        cabecalho.putInt(intervaloQuadroChave);
+    }
+
+    /**
+     * Cria um gravador de trajetórias para o campo de uma simulação, com o
+     * intervalo padrão entre quadros-chave.
+     * @param arquivo O arquivo a ser gravado.
+     * @param campo O campo a ser gravado.
+     * @throws IOException Se não for possível criar o arquivo.
+     */
+    public GravadorTrajetoria(Path arquivo, Campo campo) throws IOException
+    {
+        this(arquivo, campo.obterComprimento(), campo.obterLargura(), INTERVALO_PADRAO);
+    }
+
+    /**
+     * Grava o quadro do passo.
+     * @param passo O passo da simulação.
+     * @param campo O campo da simulação.
+     * @throws UncheckedIOException Se a gravação de um quadro anterior falhou.
+     */
+    public void mostrarStatus(int passo, Campo campo)
+    {
+        if(campo.obterComprimento() != comprimento || campo.obterLargura() != largura) {
+            throw new IllegalArgumentException("O campo não tem as dimensões da trajetória");
+        }
+        dados.clear();
+        byte tipo;
+        if(campo != campoAnterior || passo == 0 || quadrosDesdeChave >= intervaloQuadroChave) {
+            tipo = QUADRO_CHAVE;
+            montarQuadroChave(campo);
+            quadrosDesdeChave = 0;
+        }
+        else {
+            tipo = QUADRO_ALTERACOES;
+            montarQuadroAlteracoes(campo);
+            quadrosDesdeChave++;
+        }
+        campoAnterior = campo;
+        dados.flip();
+
+        ByteBuffer inicio = escrita.reservar(MAXIMO_INICIO_QUADRO);
+        inicio.put(tipo);
+        escreverVarint(inicio, passo);
+        escreverVarint(inicio, dados.remaining());
+        escrita.escrever(dados);
+    }
+
+    /**
+     * Envia os quadros acumulados para a gravação, sem esperar por ela.
+     */
+    public void simulacaoConcluida()
+    {
+        escrita.enviar();
+    }
+
+    /**
+     * Grava os quadros restantes, espera a gravação terminar e fecha o arquivo.
+     * Depois disso, o gravador deve ser removido da simulação.
+     * @throws IOException Se a gravação de algum quadro falhou.
+     */
+    public void close() throws IOException
+    {
+        escrita.close();
+    }
+
+    /**
+     * Monta um quadro-chave: as sequências de posições com a mesma espécie.
+     */
+    private void montarQuadroChave(Campo campo)
+    {
+        campo.copiarEspecies(especies);
+        int inicio = 0;
+        while(inicio < especies.length) {
+            byte codigo = especies[inicio];
+            int fim = inicio + 1;
+            while(fim < especies.length && especies[fim] == codigo) {
+                fim++;
+            }
+            adicionar(fim - inicio, codigo);
+            inicio = fim;
+        }
+    }
+
+    /**
+     * Monta um quadro com as posições cuja espécie mudou desde o quadro anterior.
+     */
+    private void montarQuadroAlteracoes(Campo campo)
+    {
+        int anterior = -1;
+        for(int indice = campo.proximaAlterada(0); indice != Campo.NENHUMA;
+            indice = campo.proximaAlterada(indice + 1)) {
+            byte codigo = campo.obterEspecieEm(indice);
+            // Uma posição pode ter sido esvaziada e ocupada de novo pela mesma espécie.
+            if(codigo != especies[indice]) {
+                especies[indice] = codigo;
+                adicionar(indice - anterior, codigo);
+                anterior = indice;
+            }
+        }
+    }
+
+    /**
+     * Acrescenta aos dados do quadro um número e um código de espécie.
+     */
+    private void adicionar(int numero, byte codigo)
+    {
+        if(dados.remaining() < MAXIMO_VARINT) {
+            ByteBuffer maior = ByteBuffer.allocate(dados.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            dados.flip();
+            maior.put(dados);
+            dados = maior;
+        }
+        escreverVarint(dados, ((long) numero << BITS_CODIGO) | codigo);
+    }
+
+    /**
+     * Escreve um número não negativo como varint: 7 bits por byte, com o
+     * bit mais alto de cada byte indicando se há mais bytes.
+     * @param destino Onde escrever.
+     * @param valor O número.
+     */
+    public static void escreverVarint(ByteBuffer destino, long valor)
+    {
+        while((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    /**
+     * Lê um varint escrito por escreverVarint.
+     * @param origem De onde ler.
+     * @return O número.
+     */
+    public static long lerVarint(ByteBuffer origem)
+    {
+        long valor = 0;
+        int deslocamento = 0;
+        byte b;
+        do {
+            b = origem.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while(b < 0);
+        return valor;
+    }
+}
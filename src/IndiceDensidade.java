@@ -0,0 +1,106 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Conta quantos animais de cada espécie há em cada bloco de LADO x LADO
+ * posições do campo. O campo mantém as contagens a cada colocar e limpar
+ * e as usa para pular os blocos vazios ao procurar o animal mais próximo
+ * de uma espécie (veja Campo.procurarMaisProxima), de modo que procurar
+ * em um raio grande custa pouco mais do que procurar entre as vizinhas.
+ *
+ * As faixas processadas ao mesmo tempo (veja PassoParalelo) podem alterar
+ * o mesmo bloco, por isso as contagens são alteradas de forma atômica.
+ * Uma contagem lida durante um passo paralelo pode incluir animais de
+ * outras faixas que estão se movendo, mas nunca deixa de incluir os
+ * animais que a faixa que a lê pode perceber, que não mudam enquanto ela
+ * é processada.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class IndiceDensidade
+{
+    // O lado de um bloco é 2 elevado a este número.
+    public static final int BITS_LADO = 3;
+    // O número de linhas e de colunas de um bloco.
+    public static final int LADO = 1 << BITS_LADO;
+    // Permite alterar as contagens de forma atômica.
+    private static final VarHandle CONTAGENS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // O número de linhas e de colunas de blocos.
+    private final int linhasBlocos, colunasBlocos;
+    // As contagens de cada bloco (linha * colunasBlocos + coluna),
+    // indexadas pelo código da espécie.
+    private final int[][] contagens;
+
+    /**
+     * Cria um índice com todas as contagens zeradas.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     */
+    public IndiceDensidade(int comprimento, int largura)
+    {
+        linhasBlocos = (comprimento + LADO - 1) >> BITS_LADO;
+        colunasBlocos = (largura + LADO - 1) >> BITS_LADO;
+        contagens = new int[Especie.values().length + 1][];
+        for(Especie especie : Especie.values()) {
+            contagens[especie.obterCodigo()] = new int[linhasBlocos * colunasBlocos];
+        }
+    }
+
+    /**
+     * Soma um valor à contagem de uma espécie no bloco de uma posição.
+     * @param especie O código da espécie (nada é feito para Especie.VAZIO).
+     * @param linha A linha da posição.
+     * @param coluna A coluna da posição.
+     * @param valor O valor a ser somado (1 ao colocar um animal, -1 ao retirá-lo).
+     */
+    public void somar(byte especie, int linha, int coluna, int valor)
+    {
+        if(especie != Especie.VAZIO) {
+            int bloco = (linha >> BITS_LADO) * colunasBlocos + (coluna >> BITS_LADO);
+            CONTAGENS.getAndAdd(contagens[especie], bloco, valor);
+        }
+    }
+
+    /**
+     * @param especie O código da espécie.
+     * @param linhaBloco A linha do bloco.
+     * @param colunaBloco A coluna do bloco.
+     * @return Quantos animais da espécie há no bloco.
+     */
+    public int obterContagem(byte especie, int linhaBloco, int colunaBloco)
+    {
+        return contagens[especie][linhaBloco * colunasBlocos + colunaBloco];
+    }
+
+    /**
+     * @return O número de linhas de blocos.
+     */
+    public int obterLinhasBlocos()
+    {
+        return linhasBlocos;
+    }
+
+    /**
+     * @return O número de colunas de blocos.
+     */
+    public int obterColunasBlocos()
+    {
+        return colunasBlocos;
+    }
+
+    /**
+     * Zera todas as contagens.
+     */
+    public void limpar()
+    {
+        for(int[] contagensEspecie : contagens) {
+            if(contagensEspecie != null) {
+                Arrays.fill(contagensEspecie, 0);
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 /**
  * Representa uma localização em uma grade retangular.
+ * As localizações são imutáveis. Dentro do campo, as posições são
+ * representadas por índices (veja Campo.obterIndice) e o campo fornece
+ * uma localização canônica para cada índice.
  * 
  * @author David J. Barnes e Michael Kölling
  *  Traduzido por Julio César Alves
@@ -8,8 +11,8 @@
 public class Localizacao
 {
     // Posições de linha e coluna.
-    private int linha;
-    private int coluna;
+    private final int linha;
+    private final int coluna;
 
     /**
      * Representa uma linha e uma coluna.
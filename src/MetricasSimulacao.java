@@ -0,0 +1,359 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * As métricas de uma simulação: quanto tempo cada parte do passo levou
+ * (veja FasePasso), quantos animais nasceram e morreram (por causa) e
+ * quantas consultas de vizinhança o campo recebeu. Cada campo tem as
+ * suas métricas (veja Campo.obterMetricas), que podem ser exibidas por
+ * JMX (veja registrar) para acompanhar uma simulação em execução.
+ *
+ * As contagens usam LongAdder, que distribui os incrementos de threads
+ * diferentes por células separadas, de modo que as faixas processadas ao
+ * mesmo tempo (veja PassoParalelo) não disputam o mesmo contador. Os tempos
+ * de cada fase são somados durante o passo e, ao final dele, registrados
+ * em histogramas com faixas em potências de 2 de nanossegundos.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class MetricasSimulacao implements MetricasSimulacaoMXBean
+{
+    // O domínio dos nomes JMX das métricas.
+    public static final String DOMINIO = "raposasecoelhos";
+    // Quantos nanossegundos há em um milissegundo.
+    private static final double NANOS_POR_MILISSEGUNDO = 1e6;
+
+    // O campo cujas populações são exibidas.
+    private final Campo campo;
+    // Os nascimentos, indexados pelo código da espécie.
+    private final LongAdder[] nascimentos;
+    // As mortes, indexadas pelo código da espécie e pela causa.
+    private final LongAdder[][] mortes;
+    // As consultas de vizinhança recebidas pelo campo.
+    private final LongAdder consultasVizinhanca;
+    // Quantos passos foram concluídos.
+    private final LongAdder passos;
+    // O tempo de cada fase no passo atual, em nanossegundos.
+    private final AtomicLongArray temposPasso;
+    // Os tempos de cada fase nos passos concluídos.
+    private final Histograma[] histogramas;
+    // O nome com que as métricas foram registradas por JMX, ou null.
+    private ObjectName nomeRegistrado;
+
+    /**
+     * Cria métricas zeradas para um campo.
+     * @param campo O campo cujas populações são exibidas.
+     */
+    public MetricasSimulacao(Campo campo)
+    {
+        this.campo = campo;
+        int numCodigos = Especie.values().length + 1;
+        nascimentos = new LongAdder[numCodigos];
+        mortes = new LongAdder[numCodigos][];
+        for(Especie especie : Especie.values()) {
+            nascimentos[especie.obterCodigo()] = new LongAdder();
+            mortes[especie.obterCodigo()] = new LongAdder[CausaMorte.values().length];
+            for(CausaMorte causa : CausaMorte.values()) {
+                mortes[especie.obterCodigo()][causa.ordinal()] = new LongAdder();
+            }
+        }
+        consultasVizinhanca = new LongAdder();
+        passos = new LongAdder();
+        temposPasso = new AtomicLongArray(FasePasso.values().length);
+        histogramas = new Histograma[FasePasso.values().length];
+        for(int i = 0; i < histogramas.length; i++) {
+            histogramas[i] = new Histograma();
+        }
+    }
+
+    /**
+     * Registra as métricas por JMX, no servidor da plataforma, com o nome
+     * "raposasecoelhos:type=Simulador,name=<nome>".
+     * @param nome O nome que identifica a simulação.
+     * @return O nome JMX completo.
+     * @throws JMException Se o nome for inválido ou já estiver em uso.
+     */
+    public synchronized ObjectName registrar(String nome) throws JMException
+    {
+        cancelarRegistro();
+        ObjectName nomeJmx = new ObjectName(DOMINIO + ":type=Simulador,name=" + ObjectName.quote(nome));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, nomeJmx);
+        nomeRegistrado = nomeJmx;
+        return nomeJmx;
+    }
+
+    /**
+     * Retira as métricas do servidor JMX, se tiverem sido registradas.
+     */
+    public synchronized void cancelarRegistro()
+    {
+        if(nomeRegistrado != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(nomeRegistrado);
+            }
+            catch(JMException e) {
+                // Alguém já retirou as métricas do servidor.
+            }
+            nomeRegistrado = null;
+        }
+    }
+
+    /**
+     * Registra nascimentos de uma espécie.
+     * @param especie A espécie.
+     * @param quantidade Quantos animais nasceram.
+     */
+    public void registrarNascimentos(Especie especie, int quantidade)
+    {
+        nascimentos[especie.obterCodigo()].add(quantidade);
+    }
+
+    /**
+     * Registra a morte de um animal.
+     * @param especie A espécie do animal.
+     * @param causa A causa da morte.
+     */
+    public void registrarMorte(Especie especie, CausaMorte causa)
+    {
+        mortes[especie.obterCodigo()][causa.ordinal()].increment();
+    }
+
+    /**
+     * Registra uma consulta de vizinhança.
+     */
+    public void registrarConsultaVizinhanca()
+    {
+        consultasVizinhanca.increment();
+    }
+
+    /**
+     * Soma um tempo ao de uma fase do passo atual. Pode ser chamado por
+     * qualquer thread.
+     * @param fase A fase.
+     * @param nanos O tempo, em nanossegundos.
+     */
+    public void registrarTempo(FasePasso fase, long nanos)
+    {
+        temposPasso.addAndGet(fase.ordinal(), nanos);
+    }
+
+    /**
+     * @param fase A fase.
+     * @return O tempo da fase no passo atual (ainda não concluído), em nanossegundos.
+     */
+    public long obterTempoPasso(FasePasso fase)
+    {
+        return temposPasso.get(fase.ordinal());
+    }
+
+    /**
+     * Registra nos histogramas os tempos das fases do passo atual e começa
+     * um novo passo. As fases que não ocorreram no passo são ignoradas.
+     */
+    public void concluirPasso()
+    {
+        for(int i = 0; i < histogramas.length; i++) {
+            long nanos = temposPasso.getAndSet(i, 0);
+            if(nanos > 0) {
+                histogramas[i].registrar(nanos);
+            }
+        }
+        passos.increment();
+    }
+
+    /**
+     * @param especie A espécie.
+     * @return Quantos animais da espécie nasceram.
+     */
+    public long obterNascimentos(Especie especie)
+    {
+        return nascimentos[especie.obterCodigo()].sum();
+    }
+
+    /**
+     * @param especie A espécie.
+     * @param causa A causa da morte.
+     * @return Quantos animais da espécie morreram pela causa fornecida.
+     */
+    public long obterMortes(Especie especie, CausaMorte causa)
+    {
+        return mortes[especie.obterCodigo()][causa.ordinal()].sum();
+    }
+
+    /**
+     * @param fase A fase.
+     * @return O tempo médio da fase, em milissegundos por passo em que ela ocorreu.
+     */
+    public double obterTempoMedio(FasePasso fase)
+    {
+        return histogramas[fase.ordinal()].obterMedia() / NANOS_POR_MILISSEGUNDO;
+    }
+
+    public long getPassos()
+    {
+        return passos.sum();
+    }
+
+    public Map<String, Integer> getPopulacao()
+    {
+        Map<String, Integer> populacao = new LinkedHashMap<>();
+        for(Especie especie : Especie.values()) {
+            populacao.put(especie.name(), campo.obterPopulacao(especie));
+        }
+        return populacao;
+    }
+
+    public Map<String, Long> getNascimentos()
+    {
+        Map<String, Long> valores = new LinkedHashMap<>();
+        for(Especie especie : Especie.values()) {
+            valores.put(especie.name(), obterNascimentos(especie));
+        }
+        return valores;
+    }
+
+    public Map<String, Long> getMortes()
+    {
+        Map<String, Long> valores = new LinkedHashMap<>();
+        for(Especie especie : Especie.values()) {
+            for(CausaMorte causa : CausaMorte.values()) {
+                valores.put(especie.name() + "." + causa.name(), obterMortes(especie, causa));
+            }
+        }
+        return valores;
+    }
+
+    public long getConsultasVizinhanca()
+    {
+        return consultasVizinhanca.sum();
+    }
+
+    public Map<String, Double> getTempoMedio()
+    {
+        Map<String, Double> valores = new LinkedHashMap<>();
+        for(FasePasso fase : FasePasso.values()) {
+            valores.put(fase.name(), obterTempoMedio(fase));
+        }
+        return valores;
+    }
+
+    public Map<String, Double> getTempoPercentil99()
+    {
+        Map<String, Double> valores = new LinkedHashMap<>();
+        for(FasePasso fase : FasePasso.values()) {
+            valores.put(fase.name(), histogramas[fase.ordinal()].obterPercentil(0.99) / NANOS_POR_MILISSEGUNDO);
+        }
+        return valores;
+    }
+
+    public Map<String, Double> getTempoMaximo()
+    {
+        Map<String, Double> valores = new LinkedHashMap<>();
+        for(FasePasso fase : FasePasso.values()) {
+            valores.put(fase.name(), histogramas[fase.ordinal()].maximo.get() / NANOS_POR_MILISSEGUNDO);
+        }
+        return valores;
+    }
+
+    public void zerar()
+    {
+        for(Especie especie : Especie.values()) {
+            nascimentos[especie.obterCodigo()].reset();
+            for(LongAdder contador : mortes[especie.obterCodigo()]) {
+                contador.reset();
+            }
+        }
+        consultasVizinhanca.reset();
+        passos.reset();
+        for(Histograma histograma : histogramas) {
+            histograma.zerar();
+        }
+    }
+
+    /**
+     * Um histograma de tempos, com uma faixa para cada potência de 2 de
+     * nanossegundos: a faixa i conta os tempos entre 2^i e 2^(i+1) - 1.
+     */
+    private static class Histograma
+    {
+        // As contagens de cada faixa.
+        private final LongAdder[] faixas;
+        // A soma e o número dos tempos registrados.
+        private final LongAdder soma;
+        private final LongAdder contagem;
+        // O maior tempo registrado.
+        private final LongAccumulator maximo;
+
+        /**
+         * Cria um histograma vazio.
+         */
+        public Histograma()
+        {
+            faixas = new LongAdder[Long.SIZE];
+            for(int i = 0; i < faixas.length; i++) {
+                faixas[i] = new LongAdder();
+            }
+            soma = new LongAdder();
+            contagem = new LongAdder();
+            maximo = new LongAccumulator(Math::max, 0);
+        }
+
+        /**
+         * Registra um tempo (maior que zero), em nanossegundos.
+         */
+        public void registrar(long nanos)
+        {
+            faixas[Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos)].increment();
+            soma.add(nanos);
+            contagem.increment();
+            maximo.accumulate(nanos);
+        }
+
+        /**
+         * @return O tempo médio, em nanossegundos, ou zero se não houver tempos.
+         */
+        public double obterMedia()
+        {
+            long numTempos = contagem.sum();
+            return numTempos == 0 ? 0 : (double) soma.sum() / numTempos;
+        }
+
+        /**
+         * @return O limite superior da faixa que contém a fração fornecida
+         *         dos tempos, em nanossegundos, ou zero se não houver tempos.
+         */
+        public double obterPercentil(double fracao)
+        {
+            long numTempos = contagem.sum();
+            long acumulado = 0;
+            for(int i = 0; i < faixas.length; i++) {
+                acumulado += faixas[i].sum();
+                if(acumulado > 0 && acumulado >= fracao * numTempos) {
+                    return Math.min(Math.scalb(1.0, i + 1) - 1, maximo.get());
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Zera o histograma.
+         */
+        public void zerar()
+        {
+            for(LongAdder faixa : faixas) {
+                faixa.reset();
+            }
+            soma.reset();
+            contagem.reset();
+            maximo.reset();
+        }
+    }
+}
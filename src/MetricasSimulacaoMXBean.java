@@ -0,0 +1,58 @@
+import java.util.Map;
+
+/**
+ * As métricas de uma simulação, como são exibidas por JMX (por exemplo,
+ * no JConsole ou no VisualVM). Veja MetricasSimulacao.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public interface MetricasSimulacaoMXBean
+{
+    /**
+     * @return Quantos passos foram medidos.
+     */
+    long getPassos();
+
+    /**
+     * @return O número de animais vivos de cada espécie.
+     */
+    Map<String, Integer> getPopulacao();
+
+    /**
+     * @return Quantos animais de cada espécie nasceram.
+     */
+    Map<String, Long> getNascimentos();
+
+    /**
+     * @return Quantos animais morreram, por espécie e causa (por exemplo, "RAPOSA.FOME").
+     */
+    Map<String, Long> getMortes();
+
+    /**
+     * @return Quantas consultas de vizinhança o campo recebeu.
+     */
+    long getConsultasVizinhanca();
+
+    /**
+     * @return O tempo médio de cada fase, em milissegundos por passo.
+     */
+    Map<String, Double> getTempoMedio();
+
+    /**
+     * @return O tempo abaixo do qual ficaram 99% dos passos em cada fase,
+     *         em milissegundos (aproximado para a potência de 2 seguinte).
+     */
+    Map<String, Double> getTempoPercentil99();
+
+    /**
+     * @return O maior tempo de cada fase em um passo, em milissegundos.
+     */
+    Map<String, Double> getTempoMaximo();
+
+    /**
+     * Zera todas as contagens e tempos.
+     */
+    void zerar();
+}
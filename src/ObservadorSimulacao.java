@@ -0,0 +1,26 @@
+/**
+ * Um observador da simulação. O simulador avisa seus observadores
+ * sempre que o estado do campo muda e quando uma execução termina.
+ *
+ * Esta interface não depende de nenhuma classe gráfica, de modo que
+ * o simulador pode ser executado sem uma visão (por exemplo, em
+ * servidores sem interface gráfica).
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public interface ObservadorSimulacao
+{
+    /**
+     * Mostra (ou registra) o estado atual do campo.
+     * @param passo Qual iteração do passo está sendo exibida.
+     * @param campo O campo cujo estado será exibido.
+     */
+    void mostrarStatus(int passo, Campo campo);
+
+    /**
+     * Indica que a execução solicitada ao simulador terminou.
+     */
+    void simulacaoConcluida();
+}
@@ -0,0 +1,112 @@
+/**
+ * Os parâmetros do modelo que podem ser alterados sem recompilar a
+ * simulação (veja ParametrosSimulacao). Cada parâmetro tem um valor padrão,
+ * os valores mínimo e máximo aceitos e indica se deve ser um número inteiro.
+ * 
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public enum Parametro
+{
+    // As dimensões do campo.
+    COMPRIMENTO(80, 1, Integer.MAX_VALUE, true),
+    LARGURA(120, 1, Integer.MAX_VALUE, true),
+    // A probabilidade de uma raposa ser criada em qualquer posição da grade.
+    PROBABILIDADE_CRIACAO_RAPOSA(0.02, 0, 1, false),
+    // A probabilidade de um coelho ser criado em qualquer posição.
+    PROBABILIDADE_CRIACAO_COELHO(0.08, 0, 1, false),
+    // A idade em que um coelho pode começar a se reproduzir.
+    IDADE_REPRODUCAO_COELHO(5, 0, Integer.MAX_VALUE, true),
+    // A idade máxima que um coelho pode atingir.
+    IDADE_MAXIMA_COELHO(40, 1, Integer.MAX_VALUE, true),
+    // A probabilidade de um coelho se reproduzir.
+    PROBABILIDADE_REPRODUCAO_COELHO(0.12, 0, 1, false),
+    // O número máximo de filhotes que podem nascer de cada vez.
+    TAMANHO_MAXIMO_NINHADA_COELHO(4, 1, Campo.MAXIMO_VIZINHOS, true),
+    // A idade em que uma raposa pode começar a procriar.
+    IDADE_REPRODUCAO_RAPOSA(15, 0, Integer.MAX_VALUE, true),
+    // A idade máxima que uma raposa pode atingir.
+    IDADE_MAXIMA_RAPOSA(150, 1, Integer.MAX_VALUE, true),
+    // A probabilidade de uma raposa se reproduzir.
+    PROBABILIDADE_REPRODUCAO_RAPOSA(0.08, 0, 1, false),
+    // O número máximo de filhotes que podem nascer de cada vez.
+    TAMANHO_MAXIMO_NINHADA_RAPOSA(2, 1, Campo.MAXIMO_VIZINHOS, true),
+    // O valor nutricional de um único coelho. Na prática, este é o
+    // número de passos que uma raposa pode dar antes de precisar comer novamente.
+    VALOR_COMIDA_COELHO(9, 1, Integer.MAX_VALUE, true),
+    // Até que distância (em posições, contando as diagonais) uma raposa
+    // percebe coelhos: ela come um coelho vizinho ou, se houver um coelho
+    // mais longe dentro deste raio, aproxima-se dele. Com 1, ela só
+    // percebe os coelhos vizinhos.
+    RAIO_CACA_RAPOSA(1, 1, Campo.RAIO_MAXIMO, true),
+    // Até que distância um coelho percebe raposas e foge delas. Com 0, ele
+    // não foge e se move para uma posição livre qualquer.
+    RAIO_FUGA_COELHO(0, 0, Campo.RAIO_MAXIMO, true);
+    
+    // O valor usado quando nenhum outro é fornecido.
+    private final double padrao;
+    // Os valores mínimo e máximo aceitos.
+    private final double minimo, maximo;
+    // Indica se o valor deve ser um número inteiro.
+    private final boolean inteiro;
+    
+    /**
+     * Cria um parâmetro.
+     */
+    private Parametro(double padrao, double minimo, double maximo, boolean inteiro)
+    {
+        this.padrao = padrao;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.inteiro = inteiro;
+    }
+    
+    /**
+     * @return O valor padrão do parâmetro.
+     */
+    public double obterPadrao()
+    {
+        return padrao;
+    }
+    
+    /**
+     * @return O menor valor aceito para o parâmetro.
+     */
+    public double obterMinimo()
+    {
+        return minimo;
+    }
+    
+    /**
+     * @return O maior valor aceito para o parâmetro.
+     */
+    public double obterMaximo()
+    {
+        return maximo;
+    }
+    
+    /**
+     * @return Verdadeiro se o parâmetro deve ser um número inteiro.
+     */
+    public boolean ehInteiro()
+    {
+        return inteiro;
+    }
+    
+    /**
+     * Verifica se um valor é aceito para este parâmetro.
+     * @param valor O valor a ser verificado.
+     * @throws IllegalArgumentException Se o valor não for aceito.
+     */
+    public void validar(double valor)
+    {
+        if(Double.isNaN(valor) || valor < minimo || valor > maximo) {
+            throw new IllegalArgumentException("Valor fora do intervalo [" + minimo + ", " + maximo
+                                               + "] para " + this + ": " + valor);
+        }
+        if(inteiro && valor != Math.rint(valor)) {
+            throw new IllegalArgumentException("O valor de " + this + " deve ser inteiro: " + valor);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+import java.util.Arrays;
+
+/**
+ * Os valores dos parâmetros do modelo (veja Parametro) usados por uma
+ * simulação. Os objetos desta classe são imutáveis: para alterar um
+ * parâmetro, use o método com, que cria um novo objeto. Assim, o mesmo
+ * objeto pode ser compartilhado por várias simulações executadas ao mesmo
+ * tempo.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public final class ParametrosSimulacao
+{
+    // Os parâmetros com os valores padrão.
+    private static final ParametrosSimulacao PADRAO = new ParametrosSimulacao(valoresPadrao());
+
+    // O valor de cada parâmetro, indexado pela sua posição em Parametro.
+    private final double[] valores;
+
+    // Os mesmos valores, já convertidos para o tipo usado pela simulação.
+    // Os valores por espécie são indexados pelo código da espécie.
+    private final int comprimento, largura;
+    private final double probabilidadeCriacaoRaposa, probabilidadeCriacaoCoelho;
+    private final int[] idadesReproducao;
+    private final int[] idadesMaximas;
+    private final double[] probabilidadesReproducao;
+    private final int[] tamanhosMaximosNinhada;
+    private final int valorComidaCoelho;
+    private final int raioCaca, raioFuga;
+
+    /**
+     * Cria os parâmetros com os valores fornecidos.
+     * @param valores O valor de cada parâmetro, indexado pela sua posição em Parametro.
+     */
+    private ParametrosSimulacao(double[] valores)
+    {
+        for(Parametro parametro : Parametro.values()) {
+            parametro.validar(valores[parametro.ordinal()]);
+        }
+        this.valores = valores;
+        comprimento = (int) valores[Parametro.COMPRIMENTO.ordinal()];
+        largura = (int) valores[Parametro.LARGURA.ordinal()];
+        probabilidadeCriacaoRaposa = valores[Parametro.PROBABILIDADE_CRIACAO_RAPOSA.ordinal()];
+        probabilidadeCriacaoCoelho = valores[Parametro.PROBABILIDADE_CRIACAO_COELHO.ordinal()];
+
+        int numCodigos = Especie.values().length + 1;
+        idadesReproducao = new int[numCodigos];
+        idadesMaximas = new int[numCodigos];
+        probabilidadesReproducao = new double[numCodigos];
+        tamanhosMaximosNinhada = new int[numCodigos];
+        int coelho = Especie.COELHO.obterCodigo();
+        idadesReproducao[coelho] = (int) valores[Parametro.IDADE_REPRODUCAO_COELHO.ordinal()];
+        idadesMaximas[coelho] = (int) valores[Parametro.IDADE_MAXIMA_COELHO.ordinal()];
+        probabilidadesReproducao[coelho] = valores[Parametro.PROBABILIDADE_REPRODUCAO_COELHO.ordinal()];
+        tamanhosMaximosNinhada[coelho] = (int) valores[Parametro.TAMANHO_MAXIMO_NINHADA_COELHO.ordinal()];
+        int raposa = Especie.RAPOSA.obterCodigo();
+        idadesReproducao[raposa] = (int) valores[Parametro.IDADE_REPRODUCAO_RAPOSA.ordinal()];
+        idadesMaximas[raposa] = (int) valores[Parametro.IDADE_MAXIMA_RAPOSA.ordinal()];
+        probabilidadesReproducao[raposa] = valores[Parametro.PROBABILIDADE_REPRODUCAO_RAPOSA.ordinal()];
+        tamanhosMaximosNinhada[raposa] = (int) valores[Parametro.TAMANHO_MAXIMO_NINHADA_RAPOSA.ordinal()];
+        valorComidaCoelho = (int) valores[Parametro.VALOR_COMIDA_COELHO.ordinal()];
+        raioCaca = (int) valores[Parametro.RAIO_CACA_RAPOSA.ordinal()];
+        raioFuga = (int) valores[Parametro.RAIO_FUGA_COELHO.ordinal()];
+    }
+
+    /**
+     * @return Os parâmetros com os valores padrão.
+     */
+    public static ParametrosSimulacao padrao()
+    {
+        return PADRAO;
+    }
+
+    /**
+     * Retorna uma cópia destes parâmetros com o valor de um parâmetro alterado.
+     * @param parametro O parâmetro a ser alterado.
+     * @param valor O novo valor.
+     * @return Os novos parâmetros.
+     * @throws IllegalArgumentException Se o valor não for aceito para o parâmetro.
+     */
+    public ParametrosSimulacao com(Parametro parametro, double valor)
+    {
+        double[] novosValores = valores.clone();
+        novosValores[parametro.ordinal()] = valor;
+        return new ParametrosSimulacao(novosValores);
+    }
+
+    /**
+     * Retorna uma cópia destes parâmetros com as dimensões do campo alteradas.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     * @return Os novos parâmetros.
+     */
+    public ParametrosSimulacao comDimensoes(int comprimento, int largura)
+    {
+        double[] novosValores = valores.clone();
+        novosValores[Parametro.COMPRIMENTO.ordinal()] = comprimento;
+        novosValores[Parametro.LARGURA.ordinal()] = largura;
+        return new ParametrosSimulacao(novosValores);
+    }
+
+    /**
+     * @param parametro Um parâmetro.
+     * @return O valor do parâmetro.
+     */
+    public double obter(Parametro parametro)
+    {
+        return valores[parametro.ordinal()];
+    }
+
+    /**
+     * @return O comprimento do campo.
+     */
+    public int obterComprimento()
+    {
+        return comprimento;
+    }
+
+    /**
+     * @return A largura do campo.
+     */
+    public int obterLargura()
+    {
+        return largura;
+    }
+
+    /**
+     * @return A probabilidade de uma raposa ser criada em cada posição ao povoar o campo.
+     */
+    public double obterProbabilidadeCriacaoRaposa()
+    {
+        return probabilidadeCriacaoRaposa;
+    }
+
+    /**
+     * @return A probabilidade de um coelho ser criado em cada posição ao povoar o campo.
+     */
+    public double obterProbabilidadeCriacaoCoelho()
+    {
+        return probabilidadeCriacaoCoelho;
+    }
+
+    /**
+     * @param especie Uma espécie.
+     * @return A idade em que os animais da espécie podem começar a se reproduzir.
+     */
+    public int obterIdadeReproducao(Especie especie)
+    {
+        return idadesReproducao[especie.obterCodigo()];
+    }
+
+    /**
+     * @param especie Uma espécie.
+     * @return A idade máxima que os animais da espécie podem atingir.
+     */
+    public int obterIdadeMaxima(Especie especie)
+    {
+        return idadesMaximas[especie.obterCodigo()];
+    }
+
+    /**
+     * @param especie Uma espécie.
+     * @return A probabilidade de um animal da espécie se reproduzir em um passo.
+     */
+    public double obterProbabilidadeReproducao(Especie especie)
+    {
+        return probabilidadesReproducao[especie.obterCodigo()];
+    }
+
+    /**
+     * @param especie Uma espécie.
+     * @return O número máximo de filhotes que podem nascer de cada vez.
+     */
+    public int obterTamanhoMaximoNinhada(Especie especie)
+    {
+        return tamanhosMaximosNinhada[especie.obterCodigo()];
+    }
+
+    /**
+     * @return O número de passos que uma raposa pode dar depois de comer um coelho.
+     */
+    public int obterValorComidaCoelho()
+    {
+        return valorComidaCoelho;
+    }
+
+    /**
+     * @return Até que distância uma raposa percebe coelhos (1 para apenas os vizinhos).
+     */
+    public int obterRaioCaca()
+    {
+        return raioCaca;
+    }
+
+    /**
+     * @return Até que distância um coelho percebe raposas e foge delas (0 para não fugir).
+     */
+    public int obterRaioFuga()
+    {
+        return raioFuga;
+    }
+
+    /**
+     * @return O maior raio em que algum animal percebe outros animais.
+     */
+    public int obterRaioPercepcao()
+    {
+        return Math.max(raioCaca, raioFuga);
+    }
+
+    /**
+     * @return Uma descrição dos valores de todos os parâmetros.
+     */
+    public String toString()
+    {
+        StringBuilder texto = new StringBuilder();
+        for(Parametro parametro : Parametro.values()) {
+            if(texto.length() > 0) {
+                texto.append(", ");
+            }
+            texto.append(parametro).append('=').append(valores[parametro.ordinal()]);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * @param outro Outro objeto.
+     * @return Verdadeiro se o outro objeto tiver os mesmos valores de parâmetros.
+     */
+    public boolean equals(Object outro)
+    {
+        return outro instanceof ParametrosSimulacao
+            && Arrays.equals(valores, ((ParametrosSimulacao) outro).valores);
+    }
+
+    /**
+     * @return Um código de dispersão compatível com equals.
+     */
+    public int hashCode()
+    {
+        return Arrays.hashCode(valores);
+    }
+
+    /**
+     * @return Os valores padrão de todos os parâmetros.
+     */
+    private static double[] valoresPadrao()
+    {
+        double[] valores = new double[Parametro.values().length];
+        for(Parametro parametro : Parametro.values()) {
+            valores[parametro.ordinal()] = parametro.obterPadrao();
+        }
+        return valores;
+    }
+}
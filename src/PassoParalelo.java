@@ -0,0 +1,195 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * Executa um passo da simulação usando várias threads.
+ *
+ * O campo é dividido em faixas horizontais de pelo menos duas linhas. Um
+ * animal só afeta posições a uma distância de no máximo uma posição da sua
+ * (ao se mover, dar à luz ou comer), portanto duas faixas separadas por
+ * outra faixa nunca tocam as mesmas posições. Os animais que percebem
+ * outros mais longe (veja Parametro.RAIO_CACA_RAPOSA) apenas leem as
+ * posições dentro do seu raio, e as faixas são sempre mais altas do que
+ * ele, de modo que uma faixa nunca lê posições que outra esteja alterando. Por isso, cada espécie age em
+ * duas fases, como num tabuleiro de xadrez: primeiro todas as faixas pares
+ * ao mesmo tempo e, depois, todas as faixas ímpares.
+ *
+ * Dentro de uma faixa os animais agem na ordem das posições (linha a linha).
+ * Um animal que se mova para uma faixa ainda não processada não age de
+ * novo, pois cada animal é marcado ao agir (veja ArmazemAnimais.marcarAcao),
+ * e os recém-nascidos contam como já tendo agido.
+ *
+ * A divisão em faixas não depende do número de threads. Com um
+ * Randomizador, cada faixa de cada passo usa a sua própria sequência de
+ * números aleatórios, de modo que o resultado é o mesmo com qualquer
+ * número de threads e em qualquer ordem de execução.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class PassoParalelo
+{
+    // A altura mínima de uma faixa, para que faixas processadas ao mesmo
+    // tempo nunca toquem as mesmas posições.
+    private static final int ALTURA_MINIMA = 2;
+    // Em quantas faixas dividir o campo (se ele for comprido o bastante).
+    // Há faixas suficientes para ocupar muitas threads em cada fase.
+    private static final int NUMERO_FAIXAS = 128;
+
+    // As threads que executam as faixas.
+    private ForkJoinPool pool;
+
+    /**
+     * Cria um executor de passos paralelos.
+     * @param paralelismo O número de threads a usar. Deve ser maior que zero.
+     */
+    public PassoParalelo(int paralelismo)
+    {
+        pool = new ForkJoinPool(paralelismo);
+    }
+
+    /**
+     * Executa um passo: primeiro todos os coelhos agem e depois todas as raposas.
+     * @param campo O campo da simulação.
+     * @param passo O número do passo.
+     * @param randomizador A fonte das sequências aleatórias de cada faixa, ou
+     *                     null para usar o gerador do campo em todas as faixas.
+     * @param novosCoelhos Uma lista para retornar os coelhos recém-nascidos.
+     * @param novasRaposas Uma lista para retornar as raposas recém-nascidas.
+     */
+    public void executar(Campo campo, int passo, Randomizador randomizador,
+                         List<Coelho> novosCoelhos, List<Raposa> novasRaposas)
+    {
+        int comprimento = campo.obterComprimento();
+        int altura = Math.max(ALTURA_MINIMA, (comprimento + NUMERO_FAIXAS - 1) / NUMERO_FAIXAS);
+        altura = Math.max(altura, campo.obterParametros().obterRaioPercepcao() + 1);
+        int numFaixas = (comprimento + altura - 1) / altura;
+        // Os geradores de cada faixa. Cada faixa é processada por uma única
+        // thread em cada fase, então os geradores nunca são compartilhados.
+        RandomGenerator[] geradores = new RandomGenerator[numFaixas];
+        for(int faixa = 0; faixa < numFaixas; faixa++) {
+            if(randomizador != null) {
+                geradores[faixa] = randomizador.criarGerador(passo, faixa);
+            }
+            else {
+                geradores[faixa] = campo.obterGerador();
+            }
+        }
+
+        MetricasSimulacao metricas = campo.obterMetricas();
+        long inicio = System.nanoTime();
+        List<List<Coelho>> coelhosPorFaixa = criarListas(numFaixas);
+        prepararRodada(campo, campo.obterArmazem(Especie.COELHO));
+        executarFase(campo, Especie.COELHO, altura, numFaixas, 0, geradores, coelhosPorFaixa);
+        executarFase(campo, Especie.COELHO, altura, numFaixas, 1, geradores, coelhosPorFaixa);
+        long fimCoelhos = System.nanoTime();
+        metricas.registrarTempo(FasePasso.COELHOS, fimCoelhos - inicio);
+
+        List<List<Raposa>> raposasPorFaixa = criarListas(numFaixas);
+        prepararRodada(campo, campo.obterArmazem(Especie.RAPOSA));
+        executarFase(campo, Especie.RAPOSA, altura, numFaixas, 0, geradores, raposasPorFaixa);
+        executarFase(campo, Especie.RAPOSA, altura, numFaixas, 1, geradores, raposasPorFaixa);
+        long fimRaposas = System.nanoTime();
+        metricas.registrarTempo(FasePasso.RAPOSAS, fimRaposas - fimCoelhos);
+
+        // Junta os recém-nascidos na ordem das faixas.
+        for(List<Coelho> nascidos : coelhosPorFaixa) {
+            novosCoelhos.addAll(nascidos);
+        }
+        for(List<Raposa> nascidas : raposasPorFaixa) {
+            novasRaposas.addAll(nascidas);
+        }
+        metricas.registrarTempo(FasePasso.JUNCAO, System.nanoTime() - fimRaposas);
+    }
+
+    /**
+     * Libera as threads usadas. O executor não pode mais ser usado depois disso.
+     */
+    public void encerrar()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Inicia uma nova rodada no armazém e reserva espaço para todos os
+     * nascimentos possíveis, pois ele não pode ser aumentado enquanto
+     * as faixas são processadas.
+     */
+    private void prepararRodada(Campo campo, ArmazemAnimais armazem)
+    {
+        armazem.iniciarRodada();
+        long nascimentosPossiveis = (long) armazem.obterQuantidade() * Campo.MAXIMO_VIZINHOS;
+        int tamanho = campo.obterComprimento() * campo.obterLargura();
+        armazem.reservar((int) Math.min(nascimentosPossiveis, tamanho), tamanho);
+    }
+
+    /**
+     * Processa ao mesmo tempo as faixas pares (primeira = 0) ou ímpares (primeira = 1)
+     * e espera que todas terminem.
+     */
+    private <T> void executarFase(Campo campo, Especie especie, int altura, int numFaixas,
+                                  int primeira, RandomGenerator[] geradores,
+                                  List<List<T>> nascidosPorFaixa)
+    {
+        List<ForkJoinTask<?>> tarefas = new ArrayList<>();
+        for(int faixa = primeira; faixa < numFaixas; faixa += 2) {
+            int inicio = faixa * altura;
+            int fim = Math.min(inicio + altura, campo.obterComprimento());
+            RandomGenerator rand = geradores[faixa];
+            List<T> nascidos = nascidosPorFaixa.get(faixa);
+            tarefas.add(pool.submit(() -> processarFaixa(campo, especie, inicio, fim, rand, nascidos)));
+        }
+        for(ForkJoinTask<?> tarefa : tarefas) {
+            tarefa.join();
+        }
+    }
+
+    /**
+     * Faz agir, na ordem das posições, cada animal da espécie fornecida que
+     * esteja nas linhas da faixa e que ainda não tenha agido neste passo.
+     * @param linhaInicial A primeira linha da faixa.
+     * @param linhaFinal A linha seguinte à última linha da faixa.
+     * @param rand O gerador de números aleatórios da faixa.
+     * @param nascidos Uma lista para retornar os recém-nascidos da faixa.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void processarFaixa(Campo campo, Especie especie, int linhaInicial, int linhaFinal,
+                                    RandomGenerator rand, List<T> nascidos)
+    {
+        ArmazemAnimais armazem = campo.obterArmazem(especie);
+        byte codigo = especie.obterCodigo();
+        int inicio = campo.obterIndice(linhaInicial, 0);
+        int fim = campo.obterIndice(linhaFinal, 0);
+        // Pula as posições vazias (em uma grade em ladrilhos, sem percorrê-las).
+        for(int indice = campo.proximaOcupada(inicio, fim); indice != Campo.NENHUMA;
+            indice = campo.proximaOcupada(indice + 1, fim)) {
+            if(campo.obterEspecieEm(indice) == codigo) {
+                int id = campo.obterIdEm(indice);
+                if(armazem.marcarAcao(id)) {
+                    if(especie == Especie.COELHO) {
+                        ((Coelho) armazem.obterAnimal(id)).correr((List<Coelho>) nascidos, rand);
+                    }
+                    else {
+                        ((Raposa) armazem.obterAnimal(id)).cacar((List<Raposa>) nascidos, rand);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Uma lista com o número fornecido de listas vazias.
+     */
+    private <T> List<List<T>> criarListas(int quantidade)
+    {
+        List<List<T>> listas = new ArrayList<>();
+        for(int i = 0; i < quantidade; i++) {
+            listas.add(new ArrayList<>());
+        }
+        return listas;
+    }
+}
@@ -0,0 +1,323 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * O estado completo de uma simulação em um passo, que pode ser gravado em
+ * um arquivo binário e lido de volta para continuar a simulação exatamente
+ * de onde ela parou (veja Simulador.criarPontoControle e Simulador.restaurar).
+ *
+ * O estado é formado pelos parâmetros do modelo, pela semente mestra do
+ * Randomizador, pelo passo atual e, para cada animal, na ordem em que os
+ * animais agem, pela sua posição, idade e (para as raposas) nível de comida.
+ * As posições de todos os animais determinam o conteúdo do campo, que por
+ * isso não é gravado separadamente. Como as sequências aleatórias de cada
+ * passo dependem apenas da semente mestra e do passo, isso também basta
+ * para restaurar o estado dos números aleatórios.
+ *
+ * O arquivo é gravado e lido através de regiões mapeadas em memória, de modo
+ * que campos muito grandes podem ser gravados rapidamente.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class PontoControle
+{
+    // Identifica os arquivos de pontos de controle ("RCPC").
+    private static final int ASSINATURA = 0x52435043;
+    // A versão do formato do arquivo.
+    private static final int VERSAO = 1;
+    // O tamanho máximo de cada região do arquivo mapeada em memória.
+    private static final long TAMANHO_REGIAO = 1L << 28;
+    // Quantos inteiros são gravados por coelho (posição e idade) e
+    // por raposa (posição, idade e nível de comida).
+    public static final int DADOS_POR_COELHO = 2;
+    public static final int DADOS_POR_RAPOSA = 3;
+
+    // Os parâmetros do modelo.
+    private final ParametrosSimulacao parametros;
+    // A semente mestra do Randomizador da simulação.
+    private final long sementeMestra;
+    // O passo atual da simulação.
+    private final int passo;
+    // Os dados dos coelhos e das raposas vivos, na ordem em que agem.
+    private final int[] coelhos;
+    private final int[] raposas;
+
+    /**
+     * Cria um ponto de controle.
+     * @param parametros Os parâmetros do modelo.
+     * @param sementeMestra A semente mestra do Randomizador da simulação.
+     * @param passo O passo atual da simulação.
+     * @param coelhos Para cada coelho, na ordem em que agem: posição e idade.
+     * @param raposas Para cada raposa, na ordem em que agem: posição, idade e nível de comida.
+     */
+    public PontoControle(ParametrosSimulacao parametros, long sementeMestra, int passo,
+                         int[] coelhos, int[] raposas)
+    {
+        this.parametros = parametros;
+        this.sementeMestra = sementeMestra;
+        this.passo = passo;
+        this.coelhos = coelhos;
+        this.raposas = raposas;
+    }
+
+    /**
+     * @return Os parâmetros do modelo.
+     */
+    public ParametrosSimulacao obterParametros()
+    {
+        return parametros;
+    }
+
+    /**
+     * @return A semente mestra do Randomizador da simulação.
+     */
+    public long obterSementeMestra()
+    {
+        return sementeMestra;
+    }
+
+    /**
+     * @return O passo da simulação.
+     */
+    public int obterPasso()
+    {
+        return passo;
+    }
+
+    /**
+     * @return Para cada coelho, na ordem em que agem: posição e idade.
+     */
+    public int[] obterCoelhos()
+    {
+        return coelhos;
+    }
+
+    /**
+     * @return Para cada raposa, na ordem em que agem: posição, idade e nível de comida.
+     */
+    public int[] obterRaposas()
+    {
+        return raposas;
+    }
+
+    /**
+     * Grava o ponto de controle em um arquivo, substituindo o seu conteúdo.
+     * @param arquivo O arquivo a ser gravado.
+     * @throws IOException Se não for possível gravar o arquivo.
+     */
+    public void gravar(Path arquivo) throws IOException
+    {
+        Parametro[] todos = Parametro.values();
+        long tamanho = 4L * Integer.BYTES + todos.length * Double.BYTES + Long.BYTES
+                       + 2L * Integer.BYTES + (long) (coelhos.length + raposas.length) * Integer.BYTES;
+        try(FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Regioes saida = new Regioes(canal, FileChannel.MapMode.READ_WRITE, tamanho);
+            saida.gravarInt(ASSINATURA);
+            saida.gravarInt(VERSAO);
+            saida.gravarInt(todos.length);
+            for(Parametro parametro : todos) {
+                saida.gravarDouble(parametros.obter(parametro));
+            }
+            saida.gravarLong(sementeMestra);
+            saida.gravarInt(passo);
+            saida.gravarInt(coelhos.length / DADOS_POR_COELHO);
+            saida.gravarInt(raposas.length / DADOS_POR_RAPOSA);
+            for(int dado : coelhos) {
+                saida.gravarInt(dado);
+            }
+            for(int dado : raposas) {
+                saida.gravarInt(dado);
+            }
+            saida.concluir();
+        }
+    }
+
+    /**
+     * Lê um ponto de controle de um arquivo gravado com o método gravar.
+     * @param arquivo O arquivo a ser lido.
+     * @return O ponto de controle.
+     * @throws IOException Se não for possível ler o arquivo ou se ele não
+     *                     for um ponto de controle válido.
+     */
+    public static PontoControle ler(Path arquivo) throws IOException
+    {
+        try(FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            Regioes entrada = new Regioes(canal, FileChannel.MapMode.READ_ONLY, canal.size());
+            if(entrada.lerInt() != ASSINATURA) {
+                throw new IOException("O arquivo não é um ponto de controle: " + arquivo);
+            }
+            int versao = entrada.lerInt();
+            if(versao != VERSAO) {
+                throw new IOException("Versão de ponto de controle não suportada: " + versao);
+            }
+            // Os parâmetros novos ficam no fim de Parametro; os que não estiverem
+            // no arquivo (gravado por uma versão anterior) ficam com o valor padrão.
+            Parametro[] todos = Parametro.values();
+            int numParametros = entrada.lerInt();
+            if(numParametros > todos.length) {
+                throw new IOException("O ponto de controle tem parâmetros desconhecidos: " + arquivo);
+            }
+            ParametrosSimulacao parametros = ParametrosSimulacao.padrao();
+            for(int i = 0; i < numParametros; i++) {
+                parametros = parametros.com(todos[i], entrada.lerDouble());
+            }
+            long sementeMestra = entrada.lerLong();
+            int passo = entrada.lerInt();
+            int numCoelhos = entrada.lerInt();
+            int numRaposas = entrada.lerInt();
+            // Confere as quantidades antes de criar os vetores, para que um
+            // arquivo corrompido não cause um erro diferente de IOException.
+            long area = (long) parametros.obterComprimento() * parametros.obterLargura();
+            if(numCoelhos < 0 || numRaposas < 0 || numCoelhos + (long) numRaposas > area) {
+                throw new IOException("Número de animais inválido no ponto de controle: " + arquivo);
+            }
+            long tamanhoCoelhos = (long) numCoelhos * DADOS_POR_COELHO;
+            long tamanhoRaposas = (long) numRaposas * DADOS_POR_RAPOSA;
+            if(tamanhoCoelhos > Integer.MAX_VALUE || tamanhoRaposas > Integer.MAX_VALUE) {
+                throw new IOException("Número de animais grande demais no ponto de controle: " + arquivo);
+            }
+            if((tamanhoCoelhos + tamanhoRaposas) * Integer.BYTES > entrada.obterRestante()) {
+                throw new IOException("Fim inesperado do ponto de controle: " + arquivo);
+            }
+            int[] coelhos = new int[numCoelhos * DADOS_POR_COELHO];
+            int[] raposas = new int[numRaposas * DADOS_POR_RAPOSA];
+            for(int i = 0; i < coelhos.length; i++) {
+                coelhos[i] = entrada.lerInt();
+            }
+            for(int i = 0; i < raposas.length; i++) {
+                raposas[i] = entrada.lerInt();
+            }
+            return new PontoControle(parametros, sementeMestra, passo, coelhos, raposas);
+        }
+        catch(IllegalArgumentException e) {
+            throw new IOException("Ponto de controle inválido: " + arquivo, e);
+        }
+    }
+
+    /**
+     * Percorre um arquivo em sequência através de regiões mapeadas em
+     * memória, mapeando a próxima região quando a atual termina.
+     */
+    private static class Regioes
+    {
+        private final FileChannel canal;
+        private final FileChannel.MapMode modo;
+        // O tamanho total do arquivo.
+        private final long tamanho;
+        // A posição, no arquivo, do início da região atual.
+        private long inicio;
+        private MappedByteBuffer regiao;
+
+        /**
+         * Prepara o percurso de um arquivo com o tamanho fornecido.
+         */
+        public Regioes(FileChannel canal, FileChannel.MapMode modo, long tamanho) throws IOException
+        {
+            this.canal = canal;
+            this.modo = modo;
+            this.tamanho = tamanho;
+            inicio = 0;
+            mapear(0);
+        }
+
+        /**
+         * Grava um inteiro na posição atual.
+         */
+        public void gravarInt(int valor) throws IOException
+        {
+            garantir(Integer.BYTES).putInt(valor);
+        }
+
+        /**
+         * Grava um inteiro longo na posição atual.
+         */
+        public void gravarLong(long valor) throws IOException
+        {
+            garantir(Long.BYTES).putLong(valor);
+        }
+
+        /**
+         * Grava um número real na posição atual.
+         */
+        public void gravarDouble(double valor) throws IOException
+        {
+            garantir(Double.BYTES).putDouble(valor);
+        }
+
+        /**
+         * Lê um inteiro da posição atual.
+         */
+        public int lerInt() throws IOException
+        {
+            return garantir(Integer.BYTES).getInt();
+        }
+
+        /**
+         * Lê um inteiro longo da posição atual.
+         */
+        public long lerLong() throws IOException
+        {
+            return garantir(Long.BYTES).getLong();
+        }
+
+        /**
+         * Lê um número real da posição atual.
+         */
+        public double lerDouble() throws IOException
+        {
+            return garantir(Double.BYTES).getDouble();
+        }
+
+        /**
+         * @return Quantos bytes há no arquivo depois da posição atual.
+         */
+        public long obterRestante()
+        {
+            return tamanho - (inicio + regiao.position());
+        }
+
+        /**
+         * Garante que todas as alterações foram enviadas ao arquivo.
+         */
+        public void concluir()
+        {
+            regiao.force();
+        }
+
+        /**
+         * Retorna a região atual, mapeando a próxima se a atual não tiver
+         * mais o número de bytes fornecido.
+         */
+        private MappedByteBuffer garantir(int bytes) throws IOException
+        {
+            if(regiao.remaining() < bytes) {
+                long posicao = inicio + regiao.position();
+                if(posicao + bytes > tamanho) {
+                    throw new IOException("Fim inesperado do ponto de controle");
+                }
+                if(modo == FileChannel.MapMode.READ_WRITE) {
+                    regiao.force();
+                }
+                mapear(posicao);
+            }
+            return regiao;
+        }
+
+        /**
+         * Mapeia a região que começa na posição fornecida do arquivo.
+         */
+        private void mapear(long posicao) throws IOException
+        {
+            inicio = posicao;
+            regiao = canal.map(modo, posicao, Math.min(TAMANHO_REGIAO, tamanho - posicao));
+            regiao.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
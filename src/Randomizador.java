@@ -1,4 +1,6 @@
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Fornece controle sobre a randomização da simulação. Usando o randomizador 
@@ -6,9 +8,16 @@ import java.util.Random;
  * comportamento (o que ajuda nos testes). Defina 'usarCompartilhado' como falso 
  * para obter um comportamento aleatório diferente a cada vez.
  * 
+ * Um objeto Randomizador fornece, em vez disso, sequências independentes de
+ * números aleatórios derivadas de uma semente mestra: uma para cada passo e
+ * cada parte do campo (por exemplo, cada faixa de um passo paralelo). Como
+ * cada sequência depende apenas da semente mestra, do passo e da parte, o
+ * resultado não depende da ordem em que as threads executam, e nenhum
+ * gerador é compartilhado entre threads.
+ * 
  * @author David J. Barnes e Michael Kölling
  *  Traduzido por Julio César Alves
- * @version 2025.05.08
+ * @version 2025.05.24
  */
 public class Randomizador
 {
@@ -18,12 +27,59 @@ public class Randomizador
     private static final Random rand = new Random(SEMENTE);
     // Determina se um gerador aleatório compartilhado deve ser fornecido.
     private static final boolean usarCompartilhado = true;
+    // A constante usada para espalhar os valores antes de misturá-los (razão áurea em 64 bits).
+    private static final long GAMA = 0x9E3779B97F4A7C15L;
+    
+    // A semente mestra das sequências fornecidas por este objeto.
+    private final long sementeMestra;
 
     /**
-     * Construtor para objetos da classe Randomizador.
+     * Construtor para objetos da classe Randomizador, com a semente padrão.
      */
     public Randomizador()
     {
+        this(SEMENTE);
+    }
+    
+    /**
+     * Cria um randomizador com a semente mestra fornecida.
+     * @param sementeMestra A semente da qual todas as sequências são derivadas.
+     */
+    public Randomizador(long sementeMestra)
+    {
+        this.sementeMestra = sementeMestra;
+    }
+    
+    /**
+     * Cria o gerador de uma parte de um passo. Chamadas com os mesmos
+     * argumentos produzem sempre a mesma sequência de números.
+     * @param passo O passo da simulação.
+     * @param parte A parte do campo (por exemplo, o número da faixa).
+     * @return Um novo gerador, que não deve ser compartilhado entre threads.
+     */
+    public RandomGenerator criarGerador(long passo, int parte)
+    {
+        long semente = misturar(sementeMestra + GAMA * passo);
+        return new SplittableRandom(misturar(semente + GAMA * (parte + 1)));
+    }
+    
+    /**
+     * Deriva um randomizador independente deste, por exemplo, para uma
+     * das réplicas de um conjunto de simulações.
+     * @param indice O índice do randomizador derivado.
+     * @return Um randomizador cuja semente depende desta semente e do índice.
+     */
+    public Randomizador derivar(long indice)
+    {
+        return new Randomizador(misturar(misturar(sementeMestra) + GAMA * (indice + 1)));
+    }
+    
+    /**
+     * @return A semente mestra deste randomizador.
+     */
+    public long obterSementeMestra()
+    {
+        return sementeMestra;
     }
 
     /**
@@ -50,4 +106,17 @@ public class Randomizador
             rand.setSeed(SEMENTE);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Mistura os bits de um valor (a função final do SplitMix64), de modo
+     * que valores próximos produzam sementes sem relação entre si.
+     * @param valor O valor a ser misturado.
+     * @return O valor misturado.
+     */
+    private static long misturar(long valor)
+    {
+        valor = (valor ^ (valor >>> 30)) * 0xBF58476D1CE4E5B9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94D049BB133111EBL;
+        return valor ^ (valor >>> 31);
+    }
+}
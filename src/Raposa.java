@@ -1,6 +1,5 @@
 import java.util.List;
-import java.util.Iterator;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Um modelo simples de uma raposa.
@@ -13,33 +12,25 @@ import java.util.Random;
 public class Raposa
 {
     // Características compartilhadas por todas as raposas (atributos estáticos, da classe).
+    // A idade de reprodução, a idade máxima, a probabilidade de reprodução, o
+    // tamanho máximo da ninhada e o valor nutricional de um coelho são
+    // parâmetros do modelo, obtidos do campo (veja ParametrosSimulacao).
     
-    // A idade em que uma raposa pode começar a procriar.
-    private static final int IDADE_REPRODUCAO = 15;
-    // A idade máxima que uma raposa pode atingir.
-    private static final int IDADE_MAXIMA = 150;
-    // A probabilidade de uma raposa se reproduzir.
-    private static final double PROBABILIDADE_REPRODUCAO = 0.08;
-    // O número máximo de filhotes que podem nascer de cada vez.
-    private static final int TAMANHO_MAXIMO_NINHADA = 2;
-    // O valor nutricional de um único coelho. Na prática, este é o
-    // número de passos que uma raposa pode dar antes de precisar comer novamente.
-    private static final int VALOR_COMIDA_COELHO = 9;
-    // Um gerador de números aleatórios compartilhado para controlar a reprodução.
-    private static final Random rand = Randomizador.obterRandom();
+    // Um vetor de trabalho por thread para as consultas de vizinhança, de modo
+    // que elas não criem nenhum objeto.
+    private static final ThreadLocal<int[]> bufferVizinhas =
+        ThreadLocal.withInitial(() -> new int[Campo.MAXIMO_VIZINHOS]);
     
     // Características individuais (atributos comuns, de instância).
+    // O estado da raposa (idade, nível de comida, localização, etc.) fica no
+    // armazém de raposas do campo; este objeto é apenas uma visão sobre ele.
 
-    // A idade da raposa.
-    private int idade;
-    // Indica se a raposa está viva ou não.
-    private boolean viva;
-    // A localização da raposa.
-    private Localizacao localizacao;
     // O campo ocupado.
     private Campo campo;
-    // O nível de comida da raposa, que aumenta ao comer coelhos.
-    private int nivelComida;
+    // O armazém com o estado das raposas.
+    private ArmazemAnimais armazem;
+    // O identificador da raposa no armazém (ArmazemAnimais.NENHUM se morta).
+    private int id;
 
     /**
      * Cria uma raposa. Uma raposa pode ser criada como recém-nascida (idade zero
@@ -51,17 +42,76 @@ public class Raposa
      */
     public Raposa(boolean idadeAleatoria, Campo campo, Localizacao localizacao)
     {
-        idade = 0;
-        viva = true;
+        this(idadeAleatoria, campo, campo.obterIndice(localizacao));
+    }
+    
+    /**
+     * Cria uma raposa na localização com o índice fornecido.
+     * 
+     * @param idadeAleatoria Se verdadeiro, a raposa terá idade e nível de fome aleatórios.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao O índice da localização dentro do campo.
+     */
+    public Raposa(boolean idadeAleatoria, Campo campo, int localizacao)
+    {
+        this(idadeAleatoria, campo, localizacao, campo.obterGerador());
+    }
+    
+    /**
+     * Cria uma raposa na localização com o índice fornecido, usando o gerador
+     * de números aleatórios fornecido.
+     * 
+     * @param idadeAleatoria Se verdadeiro, a raposa terá idade e nível de fome aleatórios.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao O índice da localização dentro do campo.
+     * @param rand O gerador de números aleatórios usado para sortear a idade e o nível de fome.
+     */
+    public Raposa(boolean idadeAleatoria, Campo campo, int localizacao, RandomGenerator rand)
+    {
+        iniciar(idadeAleatoria, campo, localizacao, rand);
+    }
+    
+    /**
+     * Retorna uma raposa recém-nascida na localização fornecida. Se houver
+     * uma raposa morta na reserva do armazém (veja
+     * Simulador.definirReaproveitamento), ela é reiniciada e reaproveitada;
+     * caso contrário, uma nova raposa é criada.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao O índice da localização dentro do campo.
+     * @return A raposa recém-nascida.
+     */
+    private static Raposa nascer(Campo campo, int localizacao)
+    {
+        Raposa raposa = (Raposa) campo.obterArmazem(Especie.RAPOSA).retirar();
+        if(raposa == null) {
+            return new Raposa(false, campo, localizacao);
+        }
+        assert !raposa.estaViva() : "Raposa viva na reserva do armazém";
+        raposa.iniciar(false, campo, localizacao, null);
+        return raposa;
+    }
+    
+    /**
+     * Registra a raposa no armazém e a coloca no campo.
+     * @param idadeAleatoria Se verdadeiro, a raposa terá idade e nível de fome aleatórios.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao O índice da localização dentro do campo.
+     * @param rand O gerador de números aleatórios usado para sortear a idade e o nível de fome.
+     */
+    private void iniciar(boolean idadeAleatoria, Campo campo, int localizacao, RandomGenerator rand)
+    {
         this.campo = campo;
+        armazem = campo.obterArmazem(Especie.RAPOSA);
+        id = armazem.registrar(this);
         definirLocalizacao(localizacao);
+        ParametrosSimulacao parametros = campo.obterParametros();
         if(idadeAleatoria) {
-            idade = rand.nextInt(IDADE_MAXIMA);
-            nivelComida = rand.nextInt(VALOR_COMIDA_COELHO);
+            armazem.definirIdade(id, rand.nextInt(parametros.obterIdadeMaxima(Especie.RAPOSA)));
+            armazem.definirNivelComida(id, rand.nextInt(parametros.obterValorComidaCoelho()));
         }
         else {
             // deixa a idade como 0
-            nivelComida = VALOR_COMIDA_COELHO;
+            armazem.definirNivelComida(id, parametros.obterValorComidaCoelho());
         }
     }
     
@@ -72,24 +122,45 @@ public class Raposa
      * @param novasRaposas Uma lista para retornar as raposas recém-nascidas.
      */
     public void cacar(List<Raposa> novasRaposas)
+    {
+        if(estaViva()) {
+            cacar(novasRaposas, campo.obterGerador());
+        }
+    }
+    
+    /**
+     * Faz a raposa caçar usando o gerador de números aleatórios fornecido.
+     * @param novasRaposas Uma lista para retornar as raposas recém-nascidas.
+     * @param rand O gerador de números aleatórios a ser usado.
+     */
+    public void cacar(List<Raposa> novasRaposas, RandomGenerator rand)
     {
         incrementarIdade();
         incrementarFome();
-        if(viva) {
-            reproduzir(novasRaposas);            
+        if(estaViva()) {
+            reproduzir(novasRaposas, rand);            
             // Move-se em direção a uma fonte de comida, se encontrada.
-            Localizacao novaLocalizacao = buscarComida();
-            if(novaLocalizacao == null) { 
-                // Nenhuma comida encontrada - tenta se mover para uma localização livre.
-                novaLocalizacao = campo.localizacaoVizinhaLivre(localizacao);
+            int novaLocalizacao = buscarComida(rand);
+            if(novaLocalizacao == Campo.NENHUMA) { 
+                // Nenhuma comida vizinha - aproxima-se do coelho mais próximo que
+                // perceba ou, se não houver, tenta se mover para uma localização livre.
+                int localizacao = armazem.obterLocalizacao(id);
+                int raio = campo.obterParametros().obterRaioCaca();
+                int presa = raio > 1 ? campo.procurarMaisProxima(localizacao, Especie.COELHO, raio) : Campo.NENHUMA;
+                if(presa != Campo.NENHUMA) {
+                    novaLocalizacao = campo.localizacaoVizinhaLivreEmDirecao(localizacao, presa, bufferVizinhas.get(), rand);
+                }
+                else {
+                    novaLocalizacao = campo.localizacaoVizinhaLivre(localizacao, bufferVizinhas.get(), rand);
+                }
             }
             // Verifica se foi possível se mover.
-            if(novaLocalizacao != null) {
+            if(novaLocalizacao != Campo.NENHUMA) {
                 definirLocalizacao(novaLocalizacao);
             }
             else {
                 // Superlotação.
-                morrer();
+                morrer(CausaMorte.SUPERLOTACAO);
             }
         }
     }
@@ -100,7 +171,7 @@ public class Raposa
      */
     public boolean estaViva()
     {
-        return viva;
+        return id != ArmazemAnimais.NENHUM;
     }
 
     /**
@@ -109,20 +180,46 @@ public class Raposa
      */
     public Localizacao obterLocalizacao()
     {
-        return localizacao;
+        if(id == ArmazemAnimais.NENHUM) {
+            return null;
+        }
+        return campo.obterLocalizacao(armazem.obterLocalizacao(id));
+    }
+    
+    /**
+     * Retorna o índice da localização da raposa no campo.
+     * @return O índice da localização, ou Campo.NENHUMA se a raposa não estiver no campo.
+     */
+    public int obterIndiceLocalizacao()
+    {
+        if(id == ArmazemAnimais.NENHUM) {
+            return Campo.NENHUMA;
+        }
+        return armazem.obterLocalizacao(id);
+    }
+    
+    /**
+     * Retorna o identificador da raposa no campo.
+     * @return O identificador da raposa no armazém da sua espécie,
+     *         ou ArmazemAnimais.NENHUM se a raposa estiver morta.
+     */
+    public int obterId()
+    {
+        return id;
     }
     
     /**
      * Coloca a raposa na nova localização no campo fornecido.
-     * @param novaLocalizacao A nova localização da raposa.
+     * @param novaLocalizacao O índice da nova localização da raposa.
      */
-    private void definirLocalizacao(Localizacao novaLocalizacao)
+    private void definirLocalizacao(int novaLocalizacao)
     {
-        if(localizacao != null) {
+        int localizacao = armazem.obterLocalizacao(id);
+        if(localizacao != Campo.NENHUMA) {
             campo.limpar(localizacao);
         }
-        localizacao = novaLocalizacao;
-        campo.colocar(this, novaLocalizacao);
+        armazem.definirLocalizacao(id, novaLocalizacao);
+        campo.colocar(Especie.RAPOSA, id, novaLocalizacao);
     }
     
     /**
@@ -130,9 +227,8 @@ public class Raposa
      */
     private void incrementarIdade()
     {
-        idade++;
-        if(idade > IDADE_MAXIMA) {
-            morrer();
+        if(estaViva() && armazem.incrementarIdade(id) > campo.obterParametros().obterIdadeMaxima(Especie.RAPOSA)) {
+            morrer(CausaMorte.IDADE);
         }
     }
     
@@ -141,64 +237,70 @@ public class Raposa
      */
     private void incrementarFome()
     {
-        nivelComida--;
-        if(nivelComida <= 0) {
-            morrer();
+        if(estaViva() && armazem.decrementarNivelComida(id) <= 0) {
+            morrer(CausaMorte.FOME);
         }
     }
     
     /**
      * Procura por coelhos adjacentes à localização atual.
      * Apenas o primeiro coelho vivo é comido.
-     * @return Onde a comida foi encontrada, ou null se não foi.
+     * @param rand O gerador de números aleatórios a ser usado.
+     * @return O índice de onde a comida foi encontrada, ou Campo.NENHUMA se não foi.
      */
-    private Localizacao buscarComida()
+    private int buscarComida(RandomGenerator rand)
     {
-        List<Localizacao> vizinhas = campo.localizacoesVizinhas(localizacao);
-        Iterator<Localizacao> it = vizinhas.iterator();
-        while(it.hasNext()) {
-            Localizacao onde = it.next();
-            Object animal = campo.obterObjetoEm(onde);
-            if(animal instanceof Coelho) {
-                Coelho coelho = (Coelho) animal;
+        int[] vizinhas = bufferVizinhas.get();
+        int quantidade = campo.localizacoesVizinhas(armazem.obterLocalizacao(id), vizinhas, rand);
+        for(int i = 0; i < quantidade; i++) {
+            int onde = vizinhas[i];
+            if(campo.obterEspecieEm(onde) == Especie.COELHO.obterCodigo()) {
+                Coelho coelho = (Coelho) campo.obterObjetoEm(onde);
                 if(coelho.estaVivo()) { 
-                    coelho.morrer();
-                    nivelComida = VALOR_COMIDA_COELHO;
+                    coelho.serComido();
+                    armazem.definirNivelComida(id, campo.obterParametros().obterValorComidaCoelho());
                     return onde;
                 }
             }
         }
-        return null;
+        return Campo.NENHUMA;
     }
     
     /**
      * Verifica se esta raposa deve dar à luz neste passo.
      * Novos nascimentos serão feitos em locais vizinhos livres.
      * @param novasRaposas Uma lista para retornar as raposas recém-nascidas.
+     * @param rand O gerador de números aleatórios a ser usado.
      */
-    private void reproduzir(List<Raposa> novasRaposas)
+    private void reproduzir(List<Raposa> novasRaposas, RandomGenerator rand)
     {
         // Novas raposas nascem em locais vizinhos.
-        // Obtém uma lista de locais vizinhos livres.
-        List<Localizacao> locaisLivres = campo.localizacoesVizinhasLivres(localizacao);
-        int nascimentos = procriar();
-        for(int n = 0; n < nascimentos && locaisLivres.size() > 0; n++) {
-            Localizacao local = locaisLivres.remove(0);
-            Raposa filhote = new Raposa(false, campo, local);
+        // Obtém os locais vizinhos livres.
+        int[] locaisLivres = bufferVizinhas.get();
+        int numLivres = campo.localizacoesVizinhasLivres(armazem.obterLocalizacao(id), locaisLivres, rand);
+        int nascimentos = procriar(rand);
+        for(int n = 0; n < nascimentos && n < numLivres; n++) {
+            Raposa filhote = nascer(campo, locaisLivres[n]);
             novasRaposas.add(filhote);
         }
+        if(nascimentos > 0 && numLivres > 0) {
+            EventoNascimento.registrar(campo, Especie.RAPOSA, armazem.obterLocalizacao(id),
+                                       Math.min(nascimentos, numLivres));
+        }
     }
         
     /**
      * Gera um número representando o número de nascimentos,
      * se puder procriar.
+     * @param rand O gerador de números aleatórios a ser usado.
      * @return O número de nascimentos (pode ser zero).
      */
-    private int procriar()
+    private int procriar(RandomGenerator rand)
     {
+        ParametrosSimulacao parametros = campo.obterParametros();
         int nascimentos = 0;
-        if(podeProcriar() && rand.nextDouble() <= PROBABILIDADE_REPRODUCAO) {
-            nascimentos = rand.nextInt(TAMANHO_MAXIMO_NINHADA) + 1;
+        if(podeProcriar() && rand.nextDouble() <= parametros.obterProbabilidadeReproducao(Especie.RAPOSA)) {
+            nascimentos = rand.nextInt(parametros.obterTamanhoMaximoNinhada(Especie.RAPOSA)) + 1;
         }
         return nascimentos;
     }
@@ -208,19 +310,24 @@ public class Raposa
      */
     private boolean podeProcriar()
     {
-        return idade >= IDADE_REPRODUCAO;
+        return armazem.obterIdade(id) >= campo.obterParametros().obterIdadeReproducao(Especie.RAPOSA);
     }
 
     /**
      * Indica que a raposa não está mais viva.
      * Ela é removida do campo.
+     * @param causa A causa da morte.
      */
-    private void morrer()
+    private void morrer(CausaMorte causa)
     {
-        viva = false;
-        if(localizacao != null) {
+        if(id != ArmazemAnimais.NENHUM) {
+            int localizacao = armazem.obterLocalizacao(id);
+            EventoMorte.registrar(campo, Especie.RAPOSA, causa, localizacao, armazem.obterIdade(id));
             campo.limpar(localizacao);
-            localizacao = null;
+            armazem.liberar(id);
+            campo.obterMetricas().registrarMorte(Especie.RAPOSA, causa);
+            id = ArmazemAnimais.NENHUM;
+            armazem = null;
             campo = null;
         }
     }
@@ -0,0 +1,383 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reproduz uma trajetória gravada por um GravadorTrajetoria: reconstrói o
+ * conteúdo do campo em qualquer quadro a partir do quadro-chave anterior e
+ * das alterações dos quadros seguintes, sem executar o modelo. Assim, uma
+ * execução longa pode ser percorrida (em qualquer ordem), exibida de novo ou
+ * comparada com outra execução na velocidade de leitura do disco.
+ *
+ * Ao ser aberto, o arquivo é percorrido uma vez para localizar o início de
+ * cada quadro; os dados dos quadros só são lidos quando necessários.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class ReprodutorTrajetoria implements AutoCloseable
+{
+    // O tamanho inicial da janela de leitura do arquivo, em bytes.
+    private static final int TAMANHO_JANELA = 1 << 16;
+
+    // O arquivo da trajetória.
+    private final FileChannel canal;
+    // As dimensões do campo.
+    private final int comprimento, largura;
+    // Para cada quadro: o passo, a posição dos dados no arquivo, o tamanho
+    // dos dados e o índice do quadro-chave em que a sua reconstrução começa.
+    private int[] passos;
+    private long[] posicoes;
+    private int[] tamanhos;
+    private int[] quadrosChave;
+    // Quantos quadros há no arquivo.
+    private int numQuadros;
+
+    // A parte do arquivo lida por último e a posição, no arquivo, do seu início.
+    private ByteBuffer janela;
+    private long inicioJanela;
+
+    // O conteúdo do campo no quadro atual.
+    private final byte[] especies;
+    // Quantas posições há com cada código de espécie no quadro atual.
+    private final int[] populacoes;
+    // O quadro atual, ou -1 antes do primeiro.
+    private int quadroAtual;
+
+    /**
+     * Abre uma trajetória para reprodução.
+     * @param arquivo O arquivo gravado por um GravadorTrajetoria.
+     * @throws IOException Se não for possível ler o arquivo ou se ele não for
+     *                     uma trajetória válida.
+     */
+    public ReprodutorTrajetoria(Path arquivo) throws IOException
+    {
+        canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        try {
+            janela = ByteBuffer.allocate(TAMANHO_JANELA).order(ByteOrder.LITTLE_ENDIAN);
+            janela.flip();
+            inicioJanela = 0;
+            ByteBuffer cabecalho = acessar(0, GravadorTrajetoria.TAMANHO_CABECALHO);
+            if(cabecalho == null || cabecalho.getInt() != GravadorTrajetoria.ASSINATURA) {
+                throw new IOException("O arquivo não é uma trajetória: " + arquivo);
+            }
+            int versao = cabecalho.getInt();
+            if(versao != GravadorTrajetoria.VERSAO) {
+                throw new IOException("Versão de trajetória não suportada: " + versao);
+            }
+            comprimento = cabecalho.getInt();
+            largura = cabecalho.getInt();
+            if(comprimento <= 0 || largura <= 0) {
+                throw new IOException("Dimensões inválidas na trajetória: " + arquivo);
+            }
+            especies = new byte[comprimento * largura];
+            populacoes = new int[1 << GravadorTrajetoria.BITS_CODIGO];
+            quadroAtual = -1;
+            indexar();
+        }
+        catch(IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return O comprimento do campo.
+     */
+    public int obterComprimento()
+    {
+        return comprimento;
+    }
+
+    /**
+     * @return A largura do campo.
+     */
+    public int obterLargura()
+    {
+        return largura;
+    }
+
+    /**
+     * @return Quantos quadros há na trajetória.
+     */
+    public int obterNumeroQuadros()
+    {
+        return numQuadros;
+    }
+
+    /**
+     * @param quadro O índice de um quadro.
+     * @return O passo da simulação gravado no quadro.
+     */
+    public int obterPasso(int quadro)
+    {
+        return passos[quadro];
+    }
+
+    /**
+     * @return O índice do quadro atual, ou -1 se nenhum quadro foi reconstruído ainda.
+     */
+    public int obterQuadroAtual()
+    {
+        return quadroAtual;
+    }
+
+    /**
+     * Reconstrói o campo no quadro fornecido. Avançar a partir do quadro
+     * atual aplica apenas as alterações dos quadros intermediários; nos
+     * demais casos, a reconstrução começa do quadro-chave anterior.
+     * @param quadro O índice do quadro.
+     * @throws IOException Se não for possível ler o arquivo.
+     */
+    public void irParaQuadro(int quadro) throws IOException
+    {
+        if(quadro < 0 || quadro >= numQuadros) {
+            throw new IndexOutOfBoundsException("Quadro inexistente: " + quadro);
+        }
+        int chave = quadrosChave[quadro];
+        int primeiro;
+        if(quadroAtual >= chave && quadroAtual <= quadro) {
+            primeiro = quadroAtual + 1;
+        }
+        else {
+            primeiro = chave;
+        }
+        for(int q = primeiro; q <= quadro; q++) {
+            aplicar(q);
+            quadroAtual = q;
+        }
+    }
+
+    /**
+     * Avança para o próximo quadro, se houver.
+     * @return true se houver um próximo quadro.
+     * @throws IOException Se não for possível ler o arquivo.
+     */
+    public boolean avancar() throws IOException
+    {
+        if(quadroAtual + 1 >= numQuadros) {
+            return false;
+        }
+        irParaQuadro(quadroAtual + 1);
+        return true;
+    }
+
+    /**
+     * @param indice O índice de uma posição (linha * largura + coluna).
+     * @return O código da espécie na posição, no quadro atual.
+     */
+    public byte obterEspecieEm(int indice)
+    {
+        return especies[indice];
+    }
+
+    /**
+     * Copia os códigos das espécies de todas as posições do campo no quadro
+     * atual, na ordem dos índices.
+     * @param destino O vetor que recebe os códigos. Deve ter ao menos
+     *                comprimento * largura posições.
+     */
+    public void copiarEspecies(byte[] destino)
+    {
+        System.arraycopy(especies, 0, destino, 0, especies.length);
+    }
+
+    /**
+     * @param especie Uma espécie.
+     * @return Quantos animais da espécie há no campo no quadro atual.
+     */
+    public int obterPopulacao(Especie especie)
+    {
+        return populacoes[especie.obterCodigo()];
+    }
+
+    /**
+     * Fecha o arquivo da trajetória.
+     * @throws IOException Se não for possível fechar o arquivo.
+     */
+    public void close() throws IOException
+    {
+        canal.close();
+    }
+
+    /**
+     * Percorre o arquivo localizando o início de cada quadro. Um último
+     * quadro incompleto (de um gravador que não foi fechado) é ignorado.
+     */
+    private void indexar() throws IOException
+    {
+        passos = new int[1024];
+        posicoes = new long[passos.length];
+        tamanhos = new int[passos.length];
+        quadrosChave = new int[passos.length];
+        numQuadros = 0;
+        int ultimaChave = -1;
+        long tamanhoArquivo = canal.size();
+        long posicao = GravadorTrajetoria.TAMANHO_CABECALHO;
+        while(posicao < tamanhoArquivo) {
+            int disponivel = (int) Math.min(GravadorTrajetoria.MAXIMO_INICIO_QUADRO, tamanhoArquivo - posicao);
+            ByteBuffer inicio = acessar(posicao, disponivel);
+            byte tipo;
+            int passo, tamanho;
+            try {
+                tipo = inicio.get();
+                passo = (int) GravadorTrajetoria.lerVarint(inicio);
+                tamanho = (int) GravadorTrajetoria.lerVarint(inicio);
+            }
+            catch(RuntimeException e) {
+                // O início do último quadro não foi gravado por completo.
+                break;
+            }
+            long posicaoDados = inicioJanela + inicio.position();
+            if(posicaoDados + tamanho > tamanhoArquivo) {
+                break;
+            }
+            if(tipo == GravadorTrajetoria.QUADRO_CHAVE) {
+                ultimaChave = numQuadros;
+            }
+            else if(tipo != GravadorTrajetoria.QUADRO_ALTERACOES || ultimaChave < 0) {
+                throw new IOException("Quadro inválido na posição " + posicao + " da trajetória");
+            }
+            if(numQuadros == passos.length) {
+                int capacidade = numQuadros * 2;
+                passos = Arrays.copyOf(passos, capacidade);
+                posicoes = Arrays.copyOf(posicoes, capacidade);
+                tamanhos = Arrays.copyOf(tamanhos, capacidade);
+                quadrosChave = Arrays.copyOf(quadrosChave, capacidade);
+            }
+            passos[numQuadros] = passo;
+            posicoes[numQuadros] = posicaoDados;
+            tamanhos[numQuadros] = tamanho;
+            quadrosChave[numQuadros] = ultimaChave;
+            numQuadros++;
+            posicao = posicaoDados + tamanho;
+        }
+    }
+
+    /**
+     * Aplica os dados de um quadro ao conteúdo do campo.
+     */
+    private void aplicar(int quadro) throws IOException
+    {
+        ByteBuffer dados = acessar(posicoes[quadro], tamanhos[quadro]);
+        int fim = dados.position() + tamanhos[quadro];
+        int mascara = (1 << GravadorTrajetoria.BITS_CODIGO) - 1;
+        try {
+            if(quadrosChave[quadro] == quadro) {
+                Arrays.fill(populacoes, 0);
+                int indice = 0;
+                while(dados.position() < fim) {
+                    long valor = GravadorTrajetoria.lerVarint(dados);
+                    byte codigo = (byte) (valor & mascara);
+                    int quantidade = (int) (valor >>> GravadorTrajetoria.BITS_CODIGO);
+                    Arrays.fill(especies, indice, indice + quantidade, codigo);
+                    populacoes[codigo] += quantidade;
+                    indice += quantidade;
+                }
+            }
+            else {
+                int indice = -1;
+                while(dados.position() < fim) {
+                    long valor = GravadorTrajetoria.lerVarint(dados);
+                    byte codigo = (byte) (valor & mascara);
+                    indice += (int) (valor >>> GravadorTrajetoria.BITS_CODIGO);
+                    populacoes[especies[indice]]--;
+                    populacoes[codigo]++;
+                    especies[indice] = codigo;
+                }
+            }
+        }
+        catch(RuntimeException e) {
+            quadroAtual = -1;
+            throw new IOException("Dados inválidos no quadro " + quadro + " da trajetória", e);
+        }
+    }
+
+    /**
+     * Retorna um buffer posicionado no trecho do arquivo fornecido, lendo-o
+     * do arquivo se ele não estiver na janela atual.
+     * @return O buffer, ou null se o arquivo terminar antes do fim do trecho.
+     */
+    private ByteBuffer acessar(long posicao, int bytes) throws IOException
+    {
+        if(posicao < inicioJanela || posicao + bytes > inicioJanela + janela.limit()) {
+            if(janela.capacity() < bytes) {
+                janela = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            janela.clear();
+            inicioJanela = posicao;
+            while(janela.hasRemaining()) {
+                if(canal.read(janela, posicao + janela.position()) < 0) {
+                    break;
+                }
+            }
+            janela.flip();
+            if(janela.limit() < bytes) {
+                return null;
+            }
+        }
+        janela.position((int) (posicao - inicioJanela));
+        return janela;
+    }
+
+    /**
+     * Com um arquivo, reproduz a trajetória inteira e escreve a população de
+     * cada espécie em cada quadro, separadas por ponto e vírgula. Com dois
+     * arquivos, compara as trajetórias quadro a quadro e informa o primeiro
+     * quadro em que elas diferem.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length == 1) {
+            try(ReprodutorTrajetoria reprodutor = new ReprodutorTrajetoria(Path.of(args[0]))) {
+                System.out.print("quadro;passo");
+                for(Especie especie : Especie.values()) {
+                    System.out.print(";" + especie.obterClasse().getName());
+                }
+                System.out.println();
+                while(reprodutor.avancar()) {
+                    int quadro = reprodutor.obterQuadroAtual();
+                    StringBuilder linha = new StringBuilder();
+                    linha.append(quadro).append(';').append(reprodutor.obterPasso(quadro));
+                    for(Especie especie : Especie.values()) {
+                        linha.append(';').append(reprodutor.obterPopulacao(especie));
+                    }
+                    System.out.println(linha);
+                }
+            }
+        }
+        else if(args.length == 2) {
+            try(ReprodutorTrajetoria a = new ReprodutorTrajetoria(Path.of(args[0]));
+                ReprodutorTrajetoria b = new ReprodutorTrajetoria(Path.of(args[1]))) {
+                if(a.obterComprimento() != b.obterComprimento() || a.obterLargura() != b.obterLargura()) {
+                    System.out.println("As trajetórias têm dimensões diferentes");
+                    return;
+                }
+                while(a.avancar() && b.avancar()) {
+                    if(a.obterPasso(a.quadroAtual) != b.obterPasso(b.quadroAtual)
+                       || !Arrays.equals(a.especies, b.especies)) {
+                        System.out.println("Primeira diferença no quadro " + a.quadroAtual
+                                           + " (passo " + a.obterPasso(a.quadroAtual) + ")");
+                        return;
+                    }
+                }
+                if(a.obterNumeroQuadros() != b.obterNumeroQuadros()) {
+                    System.out.println("As trajetórias são iguais até o quadro " + a.quadroAtual
+                                       + ", mas têm números de quadros diferentes");
+                }
+                else {
+                    System.out.println("As trajetórias são iguais");
+                }
+            }
+        }
+        else {
+            System.err.println("Uso: java ReprodutorTrajetoria <arquivo> [outro arquivo]");
+            System.exit(1);
+        }
+    }
+}
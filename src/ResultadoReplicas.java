@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+/**
+ * Guarda as populações de cada espécie, a cada passo, de um conjunto de
+ * réplicas de uma simulação (veja ExecutorReplicas), e fornece estatísticas
+ * da distribuição das populações entre as réplicas em cada passo.
+ *
+ * Apenas a distribuição de cada passo é guardada, e não a série de cada
+ * réplica, de modo que a memória usada é a de uma cópia das populações.
+ *
+ * O passo zero corresponde ao estado inicial. Uma réplica que deixe de ser
+ * viável antes do último passo mantém, nos passos seguintes, as populações
+ * do passo em que parou.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class ResultadoReplicas
+{
+    // As populações, indexadas por código da espécie, passo e réplica. Depois
+    // de ordenadas, ficam em ordem crescente dentro de cada passo (para
+    // calcular os quantis) e não se sabe mais a qual réplica cada uma pertence.
+    private int[][][] populacoes;
+    // Verdadeiro se as populações de cada passo já estiverem em ordem crescente.
+    private boolean ordenadas;
+    // O número de réplicas e o último passo registrado.
+    private int numReplicas, numPassos;
+
+    /**
+     * Cria um resultado vazio, a ser preenchido com registrar.
+     * @param numReplicas O número de réplicas. Deve ser maior que zero.
+     * @param numPassos O último passo registrado (os passos vão de zero até ele).
+     */
+    public ResultadoReplicas(int numReplicas, int numPassos)
+    {
+        if(numReplicas <= 0) {
+            throw new IllegalArgumentException("O número de réplicas deve ser maior que zero: " + numReplicas);
+        }
+        this.numReplicas = numReplicas;
+        this.numPassos = numPassos;
+        populacoes = new int[Especie.values().length + 1][][];
+        for(Especie especie : Especie.values()) {
+            populacoes[especie.obterCodigo()] = new int[numPassos + 1][numReplicas];
+        }
+        ordenadas = true;
+    }
+
+    /**
+     * Registra as populações de uma réplica. Elas são copiadas, de modo que
+     * o vetor fornecido pode ser descartado em seguida.
+     * @param replica O índice da réplica.
+     * @param populacoesReplica As populações, indexadas por código da
+     *                          espécie e passo (de 0 a numPassos).
+     */
+    public void registrar(int replica, int[][] populacoesReplica)
+    {
+        for(Especie especie : Especie.values()) {
+            int codigo = especie.obterCodigo();
+            for(int passo = 0; passo <= numPassos; passo++) {
+                populacoes[codigo][passo][replica] = populacoesReplica[codigo][passo];
+            }
+        }
+        ordenadas = false;
+    }
+
+    /**
+     * @return O número de réplicas.
+     */
+    public int obterNumeroReplicas()
+    {
+        return numReplicas;
+    }
+
+    /**
+     * @return O último passo registrado (os passos vão de zero até ele).
+     */
+    public int obterNumeroPassos()
+    {
+        return numPassos;
+    }
+
+    /**
+     * Retorna a média, entre as réplicas, da população de uma espécie em um passo.
+     * @param especie A espécie.
+     * @param passo O passo.
+     * @return A população média.
+     */
+    public double obterMedia(Especie especie, int passo)
+    {
+        long soma = 0;
+        for(int populacao : populacoes[especie.obterCodigo()][passo]) {
+            soma += populacao;
+        }
+        return (double) soma / numReplicas;
+    }
+
+    /**
+     * Retorna um quantil, entre as réplicas, da população de uma espécie em
+     * um passo. Os valores entre duas réplicas são interpolados linearmente.
+     * @param especie A espécie.
+     * @param passo O passo.
+     * @param q O quantil, entre 0 e 1 (por exemplo, 0.5 para a mediana).
+     * @return O quantil da população.
+     */
+    public double obterQuantil(Especie especie, int passo, double q)
+    {
+        if(q < 0 || q > 1) {
+            throw new IllegalArgumentException("O quantil deve estar entre 0 e 1: " + q);
+        }
+        ordenar();
+        int[] valores = populacoes[especie.obterCodigo()][passo];
+        double posicao = q * (numReplicas - 1);
+        int abaixo = (int) Math.floor(posicao);
+        int acima = Math.min(abaixo + 1, numReplicas - 1);
+        double fracao = posicao - abaixo;
+        return valores[abaixo] + fracao * (valores[acima] - valores[abaixo]);
+    }
+
+    /**
+     * Ordena as populações de cada passo, se ainda não estiverem ordenadas.
+     */
+    private void ordenar()
+    {
+        if(!ordenadas) {
+            for(int[][] porPasso : populacoes) {
+                if(porPasso != null) {
+                    for(int[] valores : porPasso) {
+                        Arrays.sort(valores);
+                    }
+                }
+            }
+            ordenadas = true;
+        }
+    }
+}
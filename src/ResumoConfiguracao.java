@@ -0,0 +1,73 @@
+/**
+ * O resumo de uma simulação executada com uma configuração de parâmetros
+ * (veja VarreduraParametros): o passo em que uma das espécies foi extinta,
+ * se isso ocorreu, e a média e a amplitude da população de cada espécie.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class ResumoConfiguracao
+{
+    // Valor usado no lugar do passo de extinção quando nenhuma espécie foi extinta.
+    public static final int SEM_EXTINCAO = -1;
+
+    // Os parâmetros da simulação.
+    private final ParametrosSimulacao parametros;
+    // O passo em que uma das espécies foi extinta, ou SEM_EXTINCAO.
+    private final int passoExtincao;
+    // A média e a amplitude (máximo menos mínimo) da população de cada
+    // espécie, indexadas pelo código da espécie.
+    private final double[] medias;
+    private final int[] amplitudes;
+
+    /**
+     * Cria um resumo.
+     * @param parametros Os parâmetros da simulação.
+     * @param passoExtincao O passo em que uma das espécies foi extinta, ou SEM_EXTINCAO.
+     * @param medias A média da população de cada espécie, indexada pelo código da espécie.
+     * @param amplitudes A amplitude da população de cada espécie, indexada pelo código da espécie.
+     */
+    public ResumoConfiguracao(ParametrosSimulacao parametros, int passoExtincao,
+                              double[] medias, int[] amplitudes)
+    {
+        this.parametros = parametros;
+        this.passoExtincao = passoExtincao;
+        this.medias = medias.clone();
+        this.amplitudes = amplitudes.clone();
+    }
+
+    /**
+     * @return Os parâmetros da simulação.
+     */
+    public ParametrosSimulacao obterParametros()
+    {
+        return parametros;
+    }
+
+    /**
+     * @return O passo em que uma das espécies foi extinta, ou SEM_EXTINCAO.
+     */
+    public int obterPassoExtincao()
+    {
+        return passoExtincao;
+    }
+
+    /**
+     * @param especie Uma espécie.
+     * @return A população média da espécie nos passos simulados.
+     */
+    public double obterMedia(Especie especie)
+    {
+        return medias[especie.obterCodigo()];
+    }
+
+    /**
+     * @param especie Uma espécie.
+     * @return A diferença entre a maior e a menor população da espécie nos passos simulados.
+     */
+    public int obterAmplitude(Especie especie)
+    {
+        return amplitudes[especie.obterCodigo()];
+    }
+}
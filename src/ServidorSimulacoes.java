@@ -0,0 +1,270 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Um pequeno servidor HTTP local que executa simulações sem nenhuma janela,
+ * de modo que muitos estudos podem ser feitos por uma única JVM.
+ *
+ * Um trabalho é pedido em /simular, com os parâmetros na URL (ou no corpo
+ * de um POST, no mesmo formato): passos, semente e qualquer parâmetro do
+ * modelo pelo seu nome (veja Parametro). Por exemplo:
+ *
+ *     curl "http://127.0.0.1:8090/simular?passos=500&semente=42&COMPRIMENTO=120&LARGURA=160"
+ *
+ * A resposta é enviada aos poucos, enquanto a simulação avança: uma linha
+ * de cabeçalho e, depois, uma linha por passo com a população de cada
+ * espécie, separadas por ponto e vírgula. A simulação termina no número de
+ * passos pedido ou quando deixa de ser viável. Em /estado, o servidor
+ * informa quantos trabalhos estão em execução, na fila e concluídos.
+ *
+ * Os trabalhos são executados por um número fixo de threads (normalmente,
+ * uma por processador) e os demais esperam em uma fila limitada; quando
+ * ela está cheia, o pedido é recusado com o código 503. Um trabalho na
+ * fila não ocupa nenhuma thread: a thread que recebe o pedido apenas o
+ * coloca na fila, e a resposta é enviada pela thread que o executa. Se o
+ * cliente fechar a conexão, a simulação é interrompida.
+ *
+ * Cada trabalho tem o seu próprio Simulador e Randomizador, de modo que
+ * o resultado depende apenas dos parâmetros e da semente, e não da carga
+ * do servidor.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class ServidorSimulacoes
+{
+    // A porta usada quando nenhuma outra é fornecida.
+    public static final int PORTA_PADRAO = 8090;
+    // Quantos trabalhos podem esperar na fila quando nenhum outro valor é fornecido.
+    public static final int CAPACIDADE_FILA_PADRAO = 10000;
+    // O maior campo aceito em um trabalho, em posições.
+    public static final int MAXIMO_POSICOES = 1 << 24;
+    // A cada quantos passos as linhas já escritas são enviadas ao cliente.
+    private static final int INTERVALO_ENVIO = 10;
+
+    // O servidor HTTP.
+    private HttpServer servidor;
+    // As threads que executam os trabalhos, com a sua fila.
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Cria um servidor que atende apenas a pedidos da própria máquina.
+     * Ele só começa a atender depois de iniciar.
+     * @param porta A porta do servidor, ou 0 para usar uma porta livre qualquer.
+     * @param paralelismo Quantos trabalhos executar ao mesmo tempo. Deve ser maior que zero.
+     * @param capacidadeFila Quantos trabalhos podem esperar na fila. Deve ser maior que zero.
+     * @throws IOException Se não for possível abrir a porta.
+     */
+    public ServidorSimulacoes(int porta, int paralelismo, int capacidadeFila) throws IOException
+    {
+        if(paralelismo <= 0) {
+            throw new IllegalArgumentException("O número de threads deve ser maior que zero: " + paralelismo);
+        }
+        if(capacidadeFila <= 0) {
+            throw new IllegalArgumentException("A capacidade da fila deve ser maior que zero: " + capacidadeFila);
+        }
+        executor = new ThreadPoolExecutor(paralelismo, paralelismo, 0, TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(capacidadeFila));
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        servidor.createContext("/simular", this::receberTrabalho);
+        servidor.createContext("/estado", this::informarEstado);
+    }
+
+    /**
+     * Começa a atender pedidos.
+     */
+    public void iniciar()
+    {
+        servidor.start();
+    }
+
+    /**
+     * Para de atender pedidos e interrompe os trabalhos em execução. Os
+     * trabalhos na fila são descartados.
+     */
+    public void encerrar()
+    {
+        servidor.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return A porta em que o servidor atende.
+     */
+    public int obterPorta()
+    {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Lê os parâmetros de um pedido e coloca o trabalho na fila.
+     */
+    private void receberTrabalho(HttpExchange troca) throws IOException
+    {
+        ParametrosSimulacao parametros = ParametrosSimulacao.padrao();
+        int numPassos = 500;
+        long semente = new Randomizador().obterSementeMestra();
+        try {
+            for(String par : lerConsulta(troca).split("&")) {
+                if(par.isEmpty()) {
+                    continue;
+                }
+                String[] partes = par.split("=", 2);
+                if(partes.length != 2) {
+                    throw new IllegalArgumentException("Parâmetro sem valor: " + par);
+                }
+                String nome = URLDecoder.decode(partes[0], StandardCharsets.UTF_8);
+                String valor = URLDecoder.decode(partes[1], StandardCharsets.UTF_8);
+                switch(nome) {
+                    case "passos":
+                        numPassos = Integer.parseInt(valor);
+                        break;
+                    case "semente":
+                        semente = Long.parseLong(valor);
+                        break;
+                    default:
+                        parametros = parametros.com(Parametro.valueOf(nome), Double.parseDouble(valor));
+                }
+            }
+            if(numPassos < 0) {
+                throw new IllegalArgumentException("O número de passos não pode ser negativo: " + numPassos);
+            }
+            if((long) parametros.obterComprimento() * parametros.obterLargura() > MAXIMO_POSICOES) {
+                throw new IllegalArgumentException("O campo tem mais de " + MAXIMO_POSICOES + " posições");
+            }
+        }
+        catch(IllegalArgumentException e) {
+            responder(troca, 400, e.getMessage());
+            return;
+        }
+
+        ParametrosSimulacao parametrosTrabalho = parametros;
+        int passosTrabalho = numPassos;
+        Randomizador randomizador = new Randomizador(semente);
+        try {
+            executor.execute(() -> executarTrabalho(troca, parametrosTrabalho, passosTrabalho, randomizador));
+        }
+        catch(RejectedExecutionException e) {
+            responder(troca, 503, "A fila de trabalhos está cheia");
+        }
+    }
+
+    /**
+     * Executa um trabalho e envia ao cliente as populações de cada passo.
+     */
+    private void executarTrabalho(HttpExchange troca, ParametrosSimulacao parametros, int numPassos,
+                                  Randomizador randomizador)
+    {
+        Simulador simulador = null;
+        try(OutputStream corpo = troca.getResponseBody()) {
+            troca.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            troca.sendResponseHeaders(200, 0);
+            Writer saida = new BufferedWriter(new OutputStreamWriter(corpo, StandardCharsets.UTF_8));
+            StringBuilder cabecalho = new StringBuilder("passo");
+            for(Especie especie : Especie.values()) {
+                cabecalho.append(';').append(especie.obterClasse().getName());
+            }
+            saida.write(cabecalho.append('\n').toString());
+            saida.flush();
+
+            simulador = new Simulador(parametros, randomizador);
+            Campo campo = simulador.obterCampo();
+            StringBuilder linha = new StringBuilder();
+            while(!Thread.currentThread().isInterrupted()) {
+                linha.setLength(0);
+                linha.append(simulador.obterPasso());
+                for(Especie especie : Especie.values()) {
+                    linha.append(';').append(campo.obterPopulacao(especie));
+                }
+                saida.write(linha.append('\n').toString());
+                if(simulador.obterPasso() >= numPassos || !simulador.ehViavel()) {
+                    break;
+                }
+                if(simulador.obterPasso() % INTERVALO_ENVIO == 0) {
+                    saida.flush();
+                }
+                simulador.simularUmPasso();
+            }
+            saida.flush();
+        }
+        catch(IOException e) {
+            // O cliente fechou a conexão: a simulação é interrompida.
+        }
+        finally {
+            if(simulador != null) {
+                simulador.encerrar();
+            }
+            troca.close();
+        }
+    }
+
+    /**
+     * Informa quantos trabalhos estão em execução, na fila e concluídos.
+     */
+    private void informarEstado(HttpExchange troca) throws IOException
+    {
+        responder(troca, 200, "executando=" + executor.getActiveCount()
+                              + ";naFila=" + executor.getQueue().size()
+                              + ";concluidos=" + executor.getCompletedTaskCount());
+    }
+
+    /**
+     * Retorna os parâmetros de um pedido: os da URL e, em um POST, os do corpo.
+     */
+    private String lerConsulta(HttpExchange troca) throws IOException
+    {
+        String consulta = troca.getRequestURI().getRawQuery();
+        if(consulta == null) {
+            consulta = "";
+        }
+        try(InputStream entrada = troca.getRequestBody()) {
+            String corpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8).trim();
+            if(!corpo.isEmpty()) {
+                consulta = consulta + "&" + corpo;
+            }
+        }
+        return consulta;
+    }
+
+    /**
+     * Envia uma resposta curta, de uma única linha, e encerra o pedido.
+     */
+    private void responder(HttpExchange troca, int codigo, String mensagem) throws IOException
+    {
+        byte[] bytes = (mensagem + "\n").getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        troca.sendResponseHeaders(codigo, bytes.length);
+        try(OutputStream corpo = troca.getResponseBody()) {
+            corpo.write(bytes);
+        }
+    }
+
+    /**
+     * Inicia um servidor e o mantém atendendo até que o processo seja encerrado.
+     * Argumentos opcionais: [porta] [threads] [capacidade da fila].
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_PADRAO;
+        int paralelismo = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int capacidadeFila = args.length > 2 ? Integer.parseInt(args[2]) : CAPACIDADE_FILA_PADRAO;
+        ServidorSimulacoes servidor = new ServidorSimulacoes(porta, paralelismo, capacidadeFila);
+        servidor.iniciar();
+        System.out.println("Atendendo em http://127.0.0.1:" + servidor.obterPorta() + "/simular");
+    }
+}
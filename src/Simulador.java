@@ -1,28 +1,24 @@
-import java.util.Random;
+import java.util.random.RandomGenerator;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.awt.Color;
 
 /**
  * Um simulador simples de predador-presa, baseado em um campo retangular contendo 
  * coelhos e raposas.
  * 
+ * O simulador não depende de nenhuma classe gráfica. Uma visão (como a
+ * VisaoSimulador) pode ser anexada como observadora, mas a simulação também
+ * pode ser criada, executada, inspecionada e encerrada sem nenhuma visão.
+ * 
  * @author David J. Barnes e Michael Kölling
  *  Traduzido por Julio César Alves
  * @version 2025.05.24
  */
 public class Simulador
 {
-    // Constantes que representam informações de configuração para a simulação.
-    // A largura padrão da grade.
-    private static final int LARGURA_PADRAO = 120;
-    // O comprimento padrão da grade.
-    private static final int COMPRIMENTO_PADRAO = 80;
-    // A probabilidade de uma raposa ser criada em qualquer posição da grade.
-    private static final double PROBABILIDADE_CRIACAO_RAPOSA = 0.02;
-    // A probabilidade de um coelho ser criado em qualquer posição.
-    private static final double PROBABILIDADE_CRIACAO_COELHO = 0.08;    
+    // As informações de configuração da simulação (dimensões do campo,
+    // probabilidades de criação dos animais, etc.) são parâmetros do modelo,
+    // guardados no campo (veja ParametrosSimulacao).
 
     // Listas de animais no campo.
     private List<Coelho> coelhos;
@@ -31,15 +27,23 @@ public class Simulador
     private Campo campo;
     // O passo atual da simulação.
     private int passo;
-    // Uma visão gráfica da simulação.
-    private VisaoSimulador visao;
+    // Os observadores avisados a cada passo (por exemplo, uma visão gráfica).
+    private List<ObservadorSimulacao> observadores;
+    // Executa os passos usando várias threads, ou null para usar apenas uma.
+    private PassoParalelo passoParalelo;
+    // A fonte das sequências aleatórias de cada passo, ou null para usar o
+    // gerador compartilhado (veja Randomizador.obterRandom).
+    private Randomizador randomizador;
+    // Se verdadeiro, os animais mortos são devolvidos aos armazéns para que
+    // sejam reaproveitados pelos recém-nascidos (veja definirReaproveitamento).
+    private boolean reaproveitarAnimais;
     
     /**
      * Constrói um campo de simulação com tamanho padrão.
      */
     public Simulador()
     {
-        this(COMPRIMENTO_PADRAO, LARGURA_PADRAO);
+        this(ParametrosSimulacao.padrao(), null);
     }
     
     /**
@@ -49,24 +53,226 @@ public class Simulador
      */
     public Simulador(int comprimento, int largura)
     {
-        if(largura <= 0 || comprimento <= 0) {
-            System.out.println("As dimensões devem ser >= zero.");
-            System.out.println("Usando valores padrões.");
-            comprimento = COMPRIMENTO_PADRAO;
-            largura = LARGURA_PADRAO;
-        }
-        
+        this(comprimento, largura, null);
+    }
+    
+    /**
+     * Cria um campo de simulação com o tamanho fornecido, cujos números
+     * aleatórios vêm de sequências independentes derivadas do randomizador
+     * fornecido (uma por passo e por faixa). Assim, a simulação é
+     * reproduzível a partir da semente mestra, mesmo quando executada com
+     * várias threads ou ao lado de outras simulações.
+     * @param comprimento O comprimento do campo. Deve ser maior que zero.
+     * @param largura A largura do campo. Deve ser maior que zero.
+     * @param randomizador O randomizador da simulação, ou null para usar o
+     *                     gerador compartilhado.
+     */
+    public Simulador(int comprimento, int largura, Randomizador randomizador)
+    {
+        this(parametrosComDimensoes(comprimento, largura), randomizador);
+    }
+    
+    /**
+     * Cria uma simulação com os parâmetros do modelo fornecidos.
+     * @param parametros Os parâmetros do modelo, incluindo as dimensões do campo.
+     * @param randomizador O randomizador da simulação, ou null para usar o
+     *                     gerador compartilhado.
+     */
+    public Simulador(ParametrosSimulacao parametros, Randomizador randomizador)
+    {
+        this(parametros, randomizador, TipoGrade.DENSA, true);
+    }
+    
+    /**
+     * Cria uma simulação com os parâmetros do modelo fornecidos, cujo campo
+     * guarda as suas posições no tipo de grade fornecido. Use
+     * TipoGrade.LADRILHOS para campos enormes e pouco povoados, e
+     * TipoGrade.FORA_DO_HEAP ou TipoGrade.ARQUIVO para campos enormes e cheios.
+     * @param parametros Os parâmetros do modelo, incluindo as dimensões do campo.
+     * @param randomizador O randomizador da simulação, ou null para usar o
+     *                     gerador compartilhado.
+     * @param tipoGrade Como o campo guarda as suas posições.
+     */
+    public Simulador(ParametrosSimulacao parametros, Randomizador randomizador, TipoGrade tipoGrade)
+    {
+        this(parametros, randomizador, tipoGrade, true);
+    }
+    
+    /**
+     * Cria uma simulação com os parâmetros do modelo fornecidos.
+     * @param parametros Os parâmetros do modelo, incluindo as dimensões do campo.
+     * @param randomizador O randomizador da simulação, ou null para usar o
+     *                     gerador compartilhado.
+     * @param tipoGrade Como o campo guarda as suas posições.
+     * @param povoar Se verdadeiro, o campo é povoado; caso contrário, fica vazio.
+     */
+    private Simulador(ParametrosSimulacao parametros, Randomizador randomizador, TipoGrade tipoGrade,
+                      boolean povoar)
+    {
+        this.randomizador = randomizador;
         coelhos = new ArrayList<>();
         raposas = new ArrayList<>();
-        campo = new Campo(comprimento, largura);
-
-        // Cria uma visão do estado de cada localização no campo.
-        visao = new VisaoSimulador(comprimento, largura, this);
-        visao.definirCor(Coelho.class, Color.ORANGE);
-        visao.definirCor(Raposa.class, Color.BLUE);
+        if(randomizador != null) {
+            campo = new Campo(parametros, randomizador.criarGerador(0, -1), tipoGrade);
+        }
+        else {
+            campo = new Campo(parametros, Randomizador.obterRandom(), tipoGrade);
+        }
+        observadores = new ArrayList<>();
         
-        // Configura um ponto de partida válido.
-        reiniciar();
+        if(povoar) {
+            // Configura um ponto de partida válido.
+            reiniciar();
+        }
+    }
+    
+    /**
+     * Restaura uma simulação a partir de um ponto de controle, em um campo
+     * com grade densa (veja restaurar(PontoControle, TipoGrade)).
+     * @param pontoControle O ponto de controle.
+     * @return A simulação restaurada, sem observadores.
+     */
+    public static Simulador restaurar(PontoControle pontoControle)
+    {
+        return restaurar(pontoControle, TipoGrade.DENSA);
+    }
+    
+    /**
+     * Restaura uma simulação a partir de um ponto de controle, em um campo
+     * que guarda as suas posições no tipo de grade fornecido. O tipo de
+     * grade não é salvo no ponto de controle: use o mesmo da simulação
+     * original para que um campo enorme não seja restaurado em uma grade
+     * densa. A simulação restaurada segue exatamente a mesma trajetória que
+     * a simulação original seguiria se não tivesse sido interrompida, desde
+     * que quem a restaura chame definirParalelismo como na original, pois o
+     * modo de execução dos passos também não é salvo.
+     * @param pontoControle O ponto de controle.
+     * @param tipoGrade Como o campo restaurado guarda as suas posições.
+     * @return A simulação restaurada, sem observadores.
+     */
+    public static Simulador restaurar(PontoControle pontoControle, TipoGrade tipoGrade)
+    {
+        Simulador simulador = new Simulador(pontoControle.obterParametros(),
+                                            new Randomizador(pontoControle.obterSementeMestra()),
+                                            tipoGrade, false);
+        simulador.passo = pontoControle.obterPasso();
+        Campo campo = simulador.campo;
+        ArmazemAnimais armazemCoelhos = campo.obterArmazem(Especie.COELHO);
+        int[] coelhos = pontoControle.obterCoelhos();
+        for(int i = 0; i < coelhos.length; i += PontoControle.DADOS_POR_COELHO) {
+            Coelho coelho = new Coelho(false, campo, coelhos[i]);
+            armazemCoelhos.definirIdade(coelho.obterId(), coelhos[i + 1]);
+            simulador.coelhos.add(coelho);
+        }
+        ArmazemAnimais armazemRaposas = campo.obterArmazem(Especie.RAPOSA);
+        int[] raposas = pontoControle.obterRaposas();
+        for(int i = 0; i < raposas.length; i += PontoControle.DADOS_POR_RAPOSA) {
+            Raposa raposa = new Raposa(false, campo, raposas[i]);
+            armazemRaposas.definirIdade(raposa.obterId(), raposas[i + 1]);
+            armazemRaposas.definirNivelComida(raposa.obterId(), raposas[i + 2]);
+            simulador.raposas.add(raposa);
+        }
+        return simulador;
+    }
+    
+    /**
+     * Cria um ponto de controle com o estado atual da simulação, a partir do
+     * qual ela pode ser restaurada (veja restaurar).
+     * @return O ponto de controle.
+     * @throws IllegalStateException Se a simulação não tiver um Randomizador,
+     *         pois o estado do gerador compartilhado não pode ser restaurado.
+     */
+    public PontoControle criarPontoControle()
+    {
+        if(randomizador == null) {
+            throw new IllegalStateException("Apenas simulações com um Randomizador podem ser salvas");
+        }
+        ArmazemAnimais armazemCoelhos = campo.obterArmazem(Especie.COELHO);
+        int[] dadosCoelhos = new int[obterNumeroCoelhos() * PontoControle.DADOS_POR_COELHO];
+        int i = 0;
+        for(Coelho coelho : coelhos) {
+            // Um coelho pode ter morrido fora de um passo (veja Coelho.morrer).
+            if(coelho.estaVivo()) {
+                dadosCoelhos[i++] = coelho.obterIndiceLocalizacao();
+                dadosCoelhos[i++] = armazemCoelhos.obterIdade(coelho.obterId());
+            }
+        }
+        ArmazemAnimais armazemRaposas = campo.obterArmazem(Especie.RAPOSA);
+        int[] dadosRaposas = new int[obterNumeroRaposas() * PontoControle.DADOS_POR_RAPOSA];
+        i = 0;
+        for(Raposa raposa : raposas) {
+            if(raposa.estaViva()) {
+                dadosRaposas[i++] = raposa.obterIndiceLocalizacao();
+                dadosRaposas[i++] = armazemRaposas.obterIdade(raposa.obterId());
+                dadosRaposas[i++] = armazemRaposas.obterNivelComida(raposa.obterId());
+            }
+        }
+        return new PontoControle(campo.obterParametros(), randomizador.obterSementeMestra(), passo,
+                                 dadosCoelhos, dadosRaposas);
+    }
+    
+    /**
+     * Anexa um observador à simulação. Ele recebe imediatamente o estado atual
+     * e, depois disso, o estado ao final de cada passo.
+     * @param observador O observador a ser anexado.
+     */
+    public void adicionarObservador(ObservadorSimulacao observador)
+    {
+        observadores.add(observador);
+        observador.mostrarStatus(passo, campo);
+        observador.simulacaoConcluida();
+    }
+    
+    /**
+     * Remove um observador da simulação.
+     * @param observador O observador a ser removido.
+     */
+    public void removerObservador(ObservadorSimulacao observador)
+    {
+        observadores.remove(observador);
+    }
+    
+    /**
+     * Define quantas threads são usadas para executar cada passo. Com uma
+     * única thread os animais agem na ordem das listas de coelhos e raposas;
+     * com mais de uma, o campo é dividido em faixas que são processadas ao
+     * mesmo tempo (veja PassoParalelo) e os animais de cada faixa agem na
+     * ordem das posições.
+     * @param numThreads O número de threads. Deve ser maior que zero.
+     */
+    public void definirParalelismo(int numThreads)
+    {
+        if(numThreads <= 0) {
+            throw new IllegalArgumentException("O número de threads deve ser maior que zero.");
+        }
+        if(passoParalelo != null) {
+            passoParalelo.encerrar();
+            passoParalelo = null;
+        }
+        if(numThreads > 1) {
+            passoParalelo = new PassoParalelo(numThreads);
+        }
+    }
+    
+    /**
+     * Define se os objetos dos animais mortos são reaproveitados pelos
+     * recém-nascidos, o que evita criar e descartar centenas de milhares de
+     * objetos por passo em campos grandes. Um animal morto só é reaproveitado
+     * depois que o simulador o retira da sua lista de animais, quando o
+     * simulador é o seu único dono. Por isso, com o reaproveitamento ativo,
+     * quem usa a simulação não deve guardar referências a animais (por
+     * exemplo, obtidas com Campo.obterObjetoEm) de um passo para outro: o
+     * objeto de um animal que morreu pode voltar como um recém-nascido.
+     * @param reaproveitar Se verdadeiro, os animais mortos são reaproveitados.
+     */
+    public void definirReaproveitamento(boolean reaproveitar)
+    {
+        reaproveitarAnimais = reaproveitar;
+        if(!reaproveitar) {
+            for(Especie especie : Especie.values()) {
+                campo.obterArmazem(especie).esvaziarReserva();
+            }
+        }
     }
     
     /**
@@ -83,16 +289,17 @@ public class Simulador
      * Executa a simulação pelo número fornecido de passos.
      * Para a simulação antes do número fornecido de passos se ela se tornar inviável.
      * @param numPassos O número de passos a executar.
+     * @param atraso A pausa entre os passos, em milissegundos (zero para não pausar).
      */
     public void simular(int numPassos, int atraso)
     {
-        for(int passo = 1; passo <= numPassos && visao.ehViavel(campo); passo++) {
+        for(int passo = 1; passo <= numPassos && ehViavel(); passo++) {
             simularUmPasso();
             if (atraso > 0) {
                 pausar(atraso);   
             }
         }
-        visao.reabilitarOpcoes();
+        notificarConclusao();
     }
     
     /**
@@ -101,37 +308,99 @@ public class Simulador
      */
     public void simularUmPasso()
     {
+        MetricasSimulacao metricas = campo.obterMetricas();
+        EventoPasso evento = new EventoPasso();
+        evento.begin();
+        long inicio = System.nanoTime();
         passo++;
+        // Registra apenas as posições alteradas neste passo.
+        campo.limparAlteracoes();
 
-        // Fornece espaço para coelhos recém-nascidos.
-        List<Coelho> novosCoelhos = new ArrayList<>();        
-        // Permite que todos os coelhos ajam.
-        for(Iterator<Coelho> it = coelhos.iterator(); it.hasNext(); ) {
-            Coelho coelho = it.next();
-            coelho.correr(novosCoelhos);
-            if(!coelho.estaVivo()) {
-                it.remove();
-            }
+        if(passoParalelo != null) {
+            simularUmPassoParalelo(metricas);
+        }
+        else {
+            simularUmPassoSequencial(metricas);
+        }
+
+        long inicioObservadores = System.nanoTime();
+        notificarStatus();
+        long fim = System.nanoTime();
+        metricas.registrarTempo(FasePasso.OBSERVADORES, fim - inicioObservadores);
+        metricas.registrarTempo(FasePasso.PASSO, fim - inicio);
+        evento.registrar(passo, campo);
+        metricas.concluirPasso();
+    }
+    
+    /**
+     * Retorna as métricas da simulação (tempos de cada fase do passo,
+     * nascimentos, mortes por causa, etc.), que também podem ser exibidas
+     * por JMX (veja MetricasSimulacao.registrar).
+     * @return As métricas da simulação.
+     */
+    public MetricasSimulacao obterMetricas()
+    {
+        return campo.obterMetricas();
+    }
+    
+    /**
+     * Executa um passo usando apenas uma thread: os animais agem na ordem das listas.
+     */
+    private void simularUmPassoSequencial(MetricasSimulacao metricas)
+    {
+        RandomGenerator rand = obterGerador(passo, 0);
+        long inicio = System.nanoTime();
+        // Permite que todos os coelhos ajam. Os recém-nascidos são
+        // acrescentados ao fim da lista e só agem no próximo passo.
+        int numCoelhos = coelhos.size();
+        for(int i = 0; i < numCoelhos; i++) {
+            coelhos.get(i).correr(coelhos, rand);
         }
+        long fimCoelhos = System.nanoTime();
+        metricas.registrarTempo(FasePasso.COELHOS, fimCoelhos - inicio);
         
-        // Fornece espaço para raposas recém-nascidas.
-        List<Raposa> novasRaposas = new ArrayList<>();        
         // Permite que todas as raposas ajam.
-        for(Iterator<Raposa> it = raposas.iterator(); it.hasNext(); ) {
-            Raposa raposa = it.next();
-            raposa.cacar(novasRaposas);
-            if(!raposa.estaViva()) {
-                it.remove();
-            }
+        int numRaposas = raposas.size();
+        for(int i = 0; i < numRaposas; i++) {
+            raposas.get(i).cacar(raposas, rand);
         }
+        long fimRaposas = System.nanoTime();
+        metricas.registrarTempo(FasePasso.RAPOSAS, fimRaposas - fimCoelhos);
         
-        // Adiciona as raposas e coelhos recém-nascidos às listas principais.
-        coelhos.addAll(novosCoelhos);
-        raposas.addAll(novasRaposas);
-
-        visao.mostrarStatus(passo, campo);
+        metricas.registrarNascimentos(Especie.COELHO, coelhos.size() - numCoelhos);
+        metricas.registrarNascimentos(Especie.RAPOSA, raposas.size() - numRaposas);
+        retirarMortos();
+        metricas.registrarTempo(FasePasso.JUNCAO, System.nanoTime() - fimRaposas);
     }
         
+    /**
+     * Executa um passo usando várias threads e depois atualiza as listas de animais.
+     */
+    private void simularUmPassoParalelo(MetricasSimulacao metricas)
+    {
+        int numCoelhos = coelhos.size();
+        int numRaposas = raposas.size();
+        // Os recém-nascidos são acrescentados ao fim das listas.
+        passoParalelo.executar(campo, passo, randomizador, coelhos, raposas);
+
+        long inicio = System.nanoTime();
+        metricas.registrarNascimentos(Especie.COELHO, coelhos.size() - numCoelhos);
+        metricas.registrarNascimentos(Especie.RAPOSA, raposas.size() - numRaposas);
+        retirarMortos();
+        metricas.registrarTempo(FasePasso.JUNCAO, System.nanoTime() - inicio);
+    }
+    
+    /**
+     * Retira das listas, em uma única passagem por lista, os animais que
+     * morreram no passo (incluindo os coelhos comidos e os recém-nascidos
+     * que já morreram), mantendo a ordem dos demais.
+     */
+    private void retirarMortos()
+    {
+        coelhos.removeIf(coelho -> !coelho.estaVivo() && descartar(Especie.COELHO, coelho));
+        raposas.removeIf(raposa -> !raposa.estaViva() && descartar(Especie.RAPOSA, raposa));
+    }
+    
     /**
      * Reinicia a simulação para uma posição inicial.
      */
@@ -142,9 +411,117 @@ public class Simulador
         raposas.clear();
         povoar();
         
-        // Mostra o estado inicial na visão.
-        visao.mostrarStatus(passo, campo);
-        visao.reabilitarOpcoes();
+        // Mostra o estado inicial aos observadores.
+        notificarStatus();
+        notificarConclusao();
+    }
+    
+    /**
+     * Determina se a simulação ainda é viável.
+     * Ou seja, se deve continuar a ser executada.
+     * @return true Se houver mais de uma espécie viva.
+     */
+    public boolean ehViavel()
+    {
+        return obterNumeroCoelhos() > 0 && obterNumeroRaposas() > 0;
+    }
+    
+    /**
+     * Encerra a simulação: desanexa todos os observadores, esvazia o campo
+     * e retira as suas métricas do servidor JMX.
+     * Depois disso, a simulação só pode ser usada novamente após reiniciar.
+     */
+    public void encerrar()
+    {
+        definirParalelismo(1);
+        observadores.clear();
+        coelhos.clear();
+        raposas.clear();
+        campo.limpar();
+        campo.obterMetricas().cancelarRegistro();
+    }
+    
+    /**
+     * @return O passo atual da simulação.
+     */
+    public int obterPasso()
+    {
+        return passo;
+    }
+    
+    /**
+     * @return O campo da simulação.
+     */
+    public Campo obterCampo()
+    {
+        return campo;
+    }
+    
+    /**
+     * @return O número de coelhos vivos.
+     */
+    public int obterNumeroCoelhos()
+    {
+        // O armazém só tem os vivos, mesmo que um coelho tenha morrido fora de um passo.
+        return campo.obterPopulacao(Especie.COELHO);
+    }
+    
+    /**
+     * @return O número de raposas vivas.
+     */
+    public int obterNumeroRaposas()
+    {
+        return campo.obterPopulacao(Especie.RAPOSA);
+    }
+    
+    /**
+     * Retorna o gerador de números aleatórios de uma parte de um passo.
+     * Sem randomizador, retorna sempre o gerador compartilhado.
+     * @param passo O passo.
+     * @param parte A parte do passo.
+     * @return O gerador a ser usado.
+     */
+    private RandomGenerator obterGerador(int passo, int parte)
+    {
+        if(randomizador != null) {
+            return randomizador.criarGerador(passo, parte);
+        }
+        return Randomizador.obterRandom();
+    }
+    
+    /**
+     * Descarta um animal morto que acabou de ser retirado da sua lista,
+     * devolvendo-o ao armazém da sua espécie se o reaproveitamento estiver ativo.
+     * @param especie A espécie do animal.
+     * @param animal O animal morto.
+     * @return Sempre verdadeiro, para ser usado em removeIf.
+     */
+    private boolean descartar(Especie especie, Object animal)
+    {
+        if(reaproveitarAnimais) {
+            campo.obterArmazem(especie).devolver(animal);
+        }
+        return true;
+    }
+    
+    /**
+     * Avisa os observadores sobre o estado atual do campo.
+     */
+    private void notificarStatus()
+    {
+        for(ObservadorSimulacao observador : observadores) {
+            observador.mostrarStatus(passo, campo);
+        }
+    }
+    
+    /**
+     * Avisa os observadores que a execução atual terminou.
+     */
+    private void notificarConclusao()
+    {
+        for(ObservadorSimulacao observador : observadores) {
+            observador.simulacaoConcluida();
+        }
     }
     
     /**
@@ -152,18 +529,19 @@ public class Simulador
      */
     private void povoar()
     {
-        Random rand = Randomizador.obterRandom();
+        RandomGenerator rand = obterGerador(0, 0);
+        ParametrosSimulacao parametros = campo.obterParametros();
         campo.limpar();
         for(int linha = 0; linha < campo.obterComprimento(); linha++) {
             for(int coluna = 0; coluna < campo.obterLargura(); coluna++) {
-                if(rand.nextDouble() <= PROBABILIDADE_CRIACAO_RAPOSA) {
-                    Localizacao localizacao = new Localizacao(linha, coluna);
-                    Raposa raposa = new Raposa(true, campo, localizacao);
+                if(rand.nextDouble() <= parametros.obterProbabilidadeCriacaoRaposa()) {
+                    int localizacao = campo.obterIndice(linha, coluna);
+                    Raposa raposa = new Raposa(true, campo, localizacao, rand);
                     raposas.add(raposa);
                 }
-                else if(rand.nextDouble() <= PROBABILIDADE_CRIACAO_COELHO) {
-                    Localizacao localizacao = new Localizacao(linha, coluna);
-                    Coelho coelho = new Coelho(true, campo, localizacao);
+                else if(rand.nextDouble() <= parametros.obterProbabilidadeCriacaoCoelho()) {
+                    int localizacao = campo.obterIndice(linha, coluna);
+                    Coelho coelho = new Coelho(true, campo, localizacao, rand);
                     coelhos.add(coelho);
                 }
                 // caso contrário, deixa a localização vazia.
@@ -171,6 +549,20 @@ public class Simulador
         }
     }
     
+    /**
+     * Retorna os parâmetros padrão com as dimensões fornecidas, ou com as
+     * dimensões padrão se as fornecidas não forem válidas.
+     */
+    private static ParametrosSimulacao parametrosComDimensoes(int comprimento, int largura)
+    {
+        if(largura <= 0 || comprimento <= 0) {
+            System.out.println("As dimensões devem ser >= zero.");
+            System.out.println("Usando valores padrões.");
+            return ParametrosSimulacao.padrao();
+        }
+        return ParametrosSimulacao.padrao().comDimensoes(comprimento, largura);
+    }
+    
     /**
      * Pausa por um tempo fornecido.
      * @param milissegundos O tempo para pausar, em milissegundos.
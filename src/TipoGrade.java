@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * As formas de guardar o conteúdo das posições de um campo (veja GradeCampo).
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public enum TipoGrade
+{
+    // Vetores contínuos com todas as posições: o acesso mais rápido, mas a
+    // memória é proporcional ao tamanho do campo (veja GradeDensa).
+    DENSA,
+    // Ladrilhos criados apenas onde há animais: a memória é proporcional à
+    // área ocupada, para campos enormes e pouco povoados (veja GradeLadrilhos).
+    LADRILHOS,
+    // Vetores contínuos em buffers diretos, fora do heap: o coletor de lixo
+    // não precisa percorrê-los nem copiá-los (veja GradeForaDoHeap).
+    FORA_DO_HEAP,
+    // Como FORA_DO_HEAP, mas em um arquivo temporário mapeado em memória,
+    // para campos maiores que a memória física (veja GradeForaDoHeap).
+    ARQUIVO;
+
+    /**
+     * Cria uma grade vazia deste tipo.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     * @return A grade.
+     * @throws UncheckedIOException Se não for possível criar o arquivo
+     *         temporário de uma grade do tipo ARQUIVO.
+     */
+    public GradeCampo criar(int comprimento, int largura)
+    {
+        switch(this) {
+            case LADRILHOS:
+                return new GradeLadrilhos(comprimento, largura);
+            case FORA_DO_HEAP:
+                return new GradeForaDoHeap(comprimento, largura);
+            case ARQUIVO:
+                return criarEmArquivo(comprimento, largura);
+            default:
+                return new GradeDensa(comprimento * largura);
+        }
+    }
+
+    /**
+     * Cria uma grade mapeada em um arquivo temporário. O arquivo é apagado
+     * logo depois de mapeado (o mapeamento continua válido e o espaço é
+     * devolvido quando a grade é descartada) ou, nos sistemas que não
+     * permitem isso, quando a máquina virtual termina.
+     */
+    private static GradeCampo criarEmArquivo(int comprimento, int largura)
+    {
+        try {
+            Path arquivo = Files.createTempFile("campo", ".grade");
+            GradeCampo grade = new GradeForaDoHeap(comprimento, largura, arquivo);
+            try {
+                Files.delete(arquivo);
+            }
+            catch(IOException e) {
+                arquivo.toFile().deleteOnExit();
+            }
+            return grade;
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Executa a simulação com várias configurações de parâmetros ao mesmo tempo,
+ * sem nenhuma janela, e resume cada execução (veja ResumoConfiguracao).
+ *
+ * As configurações podem ser geradas como uma grade cartesiana (todas as
+ * combinações dos valores fornecidos para cada parâmetro) ou como um
+ * hipercubo latino (um número fixo de amostras em que o intervalo de cada
+ * parâmetro é dividido em faixas iguais, cada faixa usada exatamente uma vez).
+ * Os parâmetros não variados mantêm os valores de uma configuração base.
+ *
+ * Cada configuração usa um Randomizador derivado da semente mestra e do
+ * índice da configuração, de modo que o resultado não depende do número de
+ * threads.
+ *
+ * @author David J. Barnes e Michael Kölling
+ *  Traduzido por Julio César Alves
+ * @version 2025.05.24
+ */
+public class VarreduraParametros
+{
+    // A configuração da qual as configurações da varredura são derivadas.
+    private ParametrosSimulacao base;
+    // Quantos passos simular com cada configuração.
+    private int numPassos;
+    // O número de threads usadas para executar as configurações.
+    private int paralelismo;
+
+    /**
+     * Cria uma varredura que usa todos os processadores disponíveis.
+     * @param base A configuração da qual as configurações da varredura são derivadas.
+     * @param numPassos Quantos passos simular com cada configuração.
+     */
+    public VarreduraParametros(ParametrosSimulacao base, int numPassos)
+    {
+        this(base, numPassos, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Cria uma varredura.
+     * @param base A configuração da qual as configurações da varredura são derivadas.
+     * @param numPassos Quantos passos simular com cada configuração.
+     * @param paralelismo O número de threads a usar. Deve ser maior que zero.
+     */
+    public VarreduraParametros(ParametrosSimulacao base, int numPassos, int paralelismo)
+    {
+        if(paralelismo <= 0) {
+            throw new IllegalArgumentException("O número de threads deve ser maior que zero: " + paralelismo);
+        }
+        this.base = base;
+        this.numPassos = numPassos;
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Gera todas as combinações dos valores fornecidos. O último parâmetro
+     * do mapa é o que varia mais rapidamente.
+     * @param valores Os valores de cada parâmetro a ser variado.
+     * @return As configurações, derivadas da configuração base.
+     */
+    public List<ParametrosSimulacao> gradeCartesiana(Map<Parametro, double[]> valores)
+    {
+        List<ParametrosSimulacao> configuracoes = new ArrayList<>();
+        configuracoes.add(base);
+        for(Map.Entry<Parametro, double[]> entrada : valores.entrySet()) {
+            List<ParametrosSimulacao> combinacoes = new ArrayList<>();
+            for(ParametrosSimulacao configuracao : configuracoes) {
+                for(double valor : entrada.getValue()) {
+                    combinacoes.add(configuracao.com(entrada.getKey(), valor));
+                }
+            }
+            configuracoes = combinacoes;
+        }
+        return configuracoes;
+    }
+
+    /**
+     * Gera configurações por amostragem em hipercubo latino. O intervalo de
+     * cada parâmetro é dividido em numAmostras faixas iguais, e cada faixa
+     * é sorteada para exatamente uma amostra. Os parâmetros inteiros são
+     * arredondados. Os parâmetros são sorteados na ordem de Parametro,
+     * qualquer que seja a ordem do mapa.
+     * @param intervalos O valor mínimo e o máximo ({mínimo, máximo}) de cada parâmetro a ser variado.
+     * @param numAmostras Quantas configurações gerar. Deve ser maior que zero.
+     * @param randomizador A fonte dos números aleatórios da amostragem.
+     * @return As configurações, derivadas da configuração base.
+     * @throws IllegalArgumentException Se algum intervalo não tiver dois
+     *         valores ou se o mínimo for maior que o máximo.
+     */
+    public List<ParametrosSimulacao> hipercuboLatino(Map<Parametro, double[]> intervalos, int numAmostras,
+                                                     Randomizador randomizador)
+    {
+        if(numAmostras <= 0) {
+            throw new IllegalArgumentException("O número de amostras deve ser maior que zero: " + numAmostras);
+        }
+        // Os parâmetros são percorridos na ordem de Parametro, e não na do
+        // mapa, para que a mesma semente gere sempre as mesmas amostras.
+        Map<Parametro, double[]> ordenados = new EnumMap<>(Parametro.class);
+        ordenados.putAll(intervalos);
+        for(Map.Entry<Parametro, double[]> entrada : ordenados.entrySet()) {
+            double[] intervalo = entrada.getValue();
+            if(intervalo == null || intervalo.length != 2 || !(intervalo[0] <= intervalo[1])) {
+                throw new IllegalArgumentException("O intervalo de " + entrada.getKey()
+                                                   + " deve ser {mínimo, máximo}, com mínimo <= máximo: "
+                                                   + Arrays.toString(intervalo));
+            }
+        }
+        RandomGenerator rand = randomizador.criarGerador(0, 0);
+        ParametrosSimulacao[] configuracoes = new ParametrosSimulacao[numAmostras];
+        Arrays.fill(configuracoes, base);
+        int[] faixas = new int[numAmostras];
+        for(Map.Entry<Parametro, double[]> entrada : ordenados.entrySet()) {
+            Parametro parametro = entrada.getKey();
+            double minimo = entrada.getValue()[0];
+            double maximo = entrada.getValue()[1];
+            // Sorteia uma permutação das faixas (Fisher-Yates).
+            for(int i = 0; i < numAmostras; i++) {
+                faixas[i] = i;
+            }
+            for(int i = numAmostras - 1; i > 0; i--) {
+                int j = rand.nextInt(i + 1);
+                int troca = faixas[i];
+                faixas[i] = faixas[j];
+                faixas[j] = troca;
+            }
+            for(int amostra = 0; amostra < numAmostras; amostra++) {
+                double fracao = (faixas[amostra] + rand.nextDouble()) / numAmostras;
+                double valor = minimo + fracao * (maximo - minimo);
+                if(parametro.ehInteiro()) {
+                    valor = Math.max(minimo, Math.min(maximo, Math.rint(valor)));
+                }
+                configuracoes[amostra] = configuracoes[amostra].com(parametro, valor);
+            }
+        }
+        return List.of(configuracoes);
+    }
+
+    /**
+     * Executa a simulação com cada configuração e espera que todas terminem.
+     * @param configuracoes As configurações a serem executadas.
+     * @param sementeMestra A semente da qual as sementes das configurações são derivadas.
+     * @return Os resumos, na mesma ordem das configurações.
+     */
+    public List<ResumoConfiguracao> executar(List<ParametrosSimulacao> configuracoes, long sementeMestra)
+    {
+        Randomizador mestre = new Randomizador(sementeMestra);
+        ExecutorService executor = Executors.newFixedThreadPool(paralelismo);
+        try {
+            List<Future<ResumoConfiguracao>> tarefas = new ArrayList<>();
+            for(int indice = 0; indice < configuracoes.size(); indice++) {
+                ParametrosSimulacao parametros = configuracoes.get(indice);
+                Randomizador randomizador = mestre.derivar(indice);
+                tarefas.add(executor.submit(() -> executarConfiguracao(parametros, randomizador)));
+            }
+            List<ResumoConfiguracao> resumos = new ArrayList<>();
+            for(Future<ResumoConfiguracao> tarefa : tarefas) {
+                resumos.add(tarefa.get());
+            }
+            return resumos;
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Execução da varredura interrompida", e);
+        }
+        catch(ExecutionException e) {
+            throw new IllegalStateException("Falha ao executar uma configuração", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executa a simulação com uma configuração e a resume.
+     */
+    private ResumoConfiguracao executarConfiguracao(ParametrosSimulacao parametros, Randomizador randomizador)
+    {
+        Simulador simulador = new Simulador(parametros, randomizador);
+        Campo campo = simulador.obterCampo();
+        int numCodigos = Especie.values().length + 1;
+        long[] somas = new long[numCodigos];
+        int[] minimos = new int[numCodigos];
+        int[] maximos = new int[numCodigos];
+        Arrays.fill(minimos, Integer.MAX_VALUE);
+        int numRegistros = 0;
+        while(true) {
+            for(Especie especie : Especie.values()) {
+                int codigo = especie.obterCodigo();
+                int populacao = campo.obterPopulacao(especie);
+                somas[codigo] += populacao;
+                minimos[codigo] = Math.min(minimos[codigo], populacao);
+                maximos[codigo] = Math.max(maximos[codigo], populacao);
+            }
+            numRegistros++;
+            if(simulador.obterPasso() >= numPassos || !simulador.ehViavel()) {
+                break;
+            }
+            simulador.simularUmPasso();
+        }
+
+        double[] medias = new double[numCodigos];
+        int[] amplitudes = new int[numCodigos];
+        for(Especie especie : Especie.values()) {
+            int codigo = especie.obterCodigo();
+            medias[codigo] = (double) somas[codigo] / numRegistros;
+            amplitudes[codigo] = maximos[codigo] - minimos[codigo];
+        }
+        int passoExtincao = simulador.ehViavel() ? ResumoConfiguracao.SEM_EXTINCAO : simulador.obterPasso();
+        simulador.encerrar();
+        return new ResumoConfiguracao(parametros, passoExtincao, medias, amplitudes);
+    }
+
+    /**
+     * Executa uma varredura e escreve uma linha por configuração, com os
+     * valores separados por ponto e vírgula. Cada parâmetro a ser variado é
+     * fornecido como NOME=v1,v2,... (grade cartesiana) ou NOME=mínimo:máximo
+     * (com --lhs). Opções: --passos N, --lhs AMOSTRAS, --semente S, --threads T.
+     * Por exemplo: VarreduraParametros --passos 500 PROBABILIDADE_REPRODUCAO_COELHO=0.08,0.12 VALOR_COMIDA_COELHO=7,9,11
+     */
+    public static void main(String[] args)
+    {
+        int numPassos = 500;
+        int numAmostras = 0;
+        long semente = new Randomizador().obterSementeMestra();
+        int paralelismo = Runtime.getRuntime().availableProcessors();
+        Map<Parametro, double[]> valores = new LinkedHashMap<>();
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "--passos":
+                    numPassos = Integer.parseInt(args[++i]);
+                    break;
+                case "--lhs":
+                    numAmostras = Integer.parseInt(args[++i]);
+                    break;
+                case "--semente":
+                    semente = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":
+                    paralelismo = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    String[] partes = args[i].split("=", 2);
+                    if(partes.length != 2) {
+                        throw new IllegalArgumentException("Argumento inválido: " + args[i]);
+                    }
+                    String separador = partes[1].contains(":") ? ":" : ",";
+                    String[] textos = partes[1].split(separador);
+                    double[] numeros = new double[textos.length];
+                    for(int j = 0; j < textos.length; j++) {
+                        numeros[j] = Double.parseDouble(textos[j]);
+                    }
+                    valores.put(Parametro.valueOf(partes[0]), numeros);
+            }
+        }
+        if(valores.isEmpty()) {
+            System.out.println("Uso: VarreduraParametros [--passos N] [--lhs AMOSTRAS] [--semente S] [--threads T]"
+                               + " NOME=v1,v2,... | NOME=mínimo:máximo ...");
+            return;
+        }
+
+        VarreduraParametros varredura = new VarreduraParametros(ParametrosSimulacao.padrao(), numPassos, paralelismo);
+        List<ParametrosSimulacao> configuracoes;
+        if(numAmostras > 0) {
+            for(Map.Entry<Parametro, double[]> entrada : valores.entrySet()) {
+                if(entrada.getValue().length != 2) {
+                    throw new IllegalArgumentException("Use NOME=mínimo:máximo com --lhs: " + entrada.getKey());
+                }
+            }
+            configuracoes = varredura.hipercuboLatino(valores, numAmostras, new Randomizador(semente).derivar(-1));
+        }
+        else {
+            configuracoes = varredura.gradeCartesiana(valores);
+        }
+        List<ResumoConfiguracao> resumos = varredura.executar(configuracoes, semente);
+
+        StringBuilder cabecalho = new StringBuilder();
+        for(Parametro parametro : valores.keySet()) {
+            cabecalho.append(parametro).append(';');
+        }
+        cabecalho.append("passoExtincao");
+        for(Especie especie : Especie.values()) {
+            String nome = especie.obterClasse().getName();
+            cabecalho.append(";media").append(nome).append(";amplitude").append(nome);
+        }
+        System.out.println(cabecalho);
+        for(ResumoConfiguracao resumo : resumos) {
+            StringBuilder linha = new StringBuilder();
+            for(Parametro parametro : valores.keySet()) {
+                linha.append(resumo.obterParametros().obter(parametro)).append(';');
+            }
+            linha.append(resumo.obterPassoExtincao());
+            for(Especie especie : Especie.values()) {
+                linha.append(';').append(String.format(Locale.ROOT, "%.2f", resumo.obterMedia(especie)));
+                linha.append(';').append(resumo.obterAmplitude(especie));
+            }
+            System.out.println(linha);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 
 import javax.swing.*;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Uma visão gráfica da grade de simulação.
@@ -12,11 +17,19 @@ import java.util.Map;
  * representando seu conteúdo. Usa uma cor de fundo padrão.
  * As cores para cada tipo de espécie podem ser definidas usando o
  * método definirCor.
+ * A visão é apenas uma observadora do simulador: ela deve ser anexada
+ * a ele com o método adicionarObservador do Simulador.
+ * A simulação apenas publica o estado do campo (no máximo uma vez por
+ * quadro) e a visão o exibe na thread de eventos do Swing a uma taxa de
+ * quadros fixa. Os passos que ocorrem entre dois quadros não são exibidos,
+ * de modo que a simulação não precisa esperar pela pintura. Em geral, cada
+ * quadro traz apenas as posições alteradas desde o quadro anterior (veja
+ * Campo.proximaAlterada), e apenas elas são redesenhadas.
  * 
  * @author David J. Barnes e Michael Kölling
  * @version 2016.02.29
  */
-public class VisaoSimulador extends JFrame
+public class VisaoSimulador extends JFrame implements ObservadorSimulacao
 {
     // Cores usadas para localizações vazias.
     private static final Color COR_VAZIA = Color.white;
@@ -24,6 +37,12 @@ public class VisaoSimulador extends JFrame
     // Cor usada para objetos que não têm cor definida.
     private static final Color COR_DESCONHECIDA = Color.gray;
 
+    // A taxa de quadros inicial, em quadros por segundo.
+    private static final int TAXA_QUADROS_PADRAO = 30;
+    // Se mais de 1/FRACAO_QUADRO_COMPLETO das posições tiver sido alterada,
+    // é mais barato copiar o campo inteiro do que enviar as alterações.
+    private static final int FRACAO_QUADRO_COMPLETO = 8;
+
     private final String PREFIXO_PASSO = "Passo: ";
     private final String PREFIXO_POPULACAO = "População: ";
 
@@ -38,9 +57,33 @@ public class VisaoSimulador extends JFrame
     
     // Um mapa para armazenar cores para participantes na simulação.
     private Map<Class<?>, Color> cores;
+    // A cor (RGB) de cada código de espécie do campo, calculada a partir do mapa de cores.
+    private volatile int[] paleta;
     // Um objeto de estatísticas que calcula e armazena informações da simulação.
     private EstatisticasCampo estatisticas;
 
+    // O último quadro publicado pela simulação que ainda não foi exibido.
+    private final AtomicReference<Quadro> quadroPronto;
+    // Um quadro que já foi exibido e pode ser reaproveitado pela simulação.
+    private final AtomicReference<Quadro> quadroLivre;
+    // O intervalo mínimo entre duas publicações, em nanossegundos.
+    private volatile long intervaloQuadros;
+    // Quando o último quadro foi publicado (veja System.nanoTime).
+    private long ultimaPublicacao;
+    // O último passo e o último campo recebidos, para que o estado final
+    // seja publicado mesmo que o seu passo tenha sido pulado.
+    private int ultimoPasso;
+    private Campo ultimoCampo;
+    // O campo do último quadro publicado.
+    private Campo campoPublicado;
+    // As posições alteradas desde o último quadro publicado.
+    private BitSet pendentes;
+    // Indica se o próximo quadro deve trazer o campo inteiro (por exemplo,
+    // porque as cores mudaram).
+    private volatile boolean redesenharTudo;
+    // Exibe os quadros publicados na thread de eventos do Swing.
+    private Timer temporizador;
+
     /**
      * Cria uma visão com a largura e altura fornecidas.
      * @param altura A altura da simulação.
@@ -51,6 +94,10 @@ public class VisaoSimulador extends JFrame
         this.simulador = simulador;
         estatisticas = new EstatisticasCampo();
         cores = new LinkedHashMap<>();
+        atualizarPaleta();
+        quadroPronto = new AtomicReference<>();
+        quadroLivre = new AtomicReference<>();
+        pendentes = new BitSet();
 
         setTitle("Simulação de Raposas e Coelhos");
         rotuloPasso = new JLabel(PREFIXO_PASSO, JLabel.CENTER);
@@ -82,6 +129,33 @@ public class VisaoSimulador extends JFrame
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         pack();
         setVisible(true);
+
+        temporizador = new Timer(0, e -> exibirQuadroPronto());
+        definirTaxaQuadros(TAXA_QUADROS_PADRAO);
+        ultimaPublicacao = System.nanoTime() - intervaloQuadros;
+        temporizador.start();
+    }
+
+    /**
+     * Para de exibir quadros e fecha a janela.
+     */
+    public void dispose()
+    {
+        temporizador.stop();
+        super.dispose();
+    }
+
+    /**
+     * Define quantas vezes por segundo, no máximo, o campo é exibido.
+     * @param quadrosPorSegundo A taxa de quadros. Deve ser maior que zero.
+     */
+    public void definirTaxaQuadros(int quadrosPorSegundo)
+    {
+        if(quadrosPorSegundo <= 0) {
+            throw new IllegalArgumentException("A taxa de quadros deve ser maior que zero: " + quadrosPorSegundo);
+        }
+        intervaloQuadros = 1_000_000_000L / quadrosPorSegundo;
+        temporizador.setDelay(Math.max(1, 1000 / quadrosPorSegundo));
     }
 
     /**
@@ -164,6 +238,22 @@ public class VisaoSimulador extends JFrame
     public void definirCor(Class<?> classeAnimal, Color cor)
     {
         cores.put(classeAnimal, cor);
+        atualizarPaleta();
+    }
+
+    /**
+     * Calcula novamente a cor de cada código de espécie do campo.
+     */
+    private void atualizarPaleta()
+    {
+        Especie[] especies = Especie.values();
+        int[] novaPaleta = new int[especies.length + 1];
+        novaPaleta[Especie.VAZIO] = COR_VAZIA.getRGB();
+        for(Especie especie : especies) {
+            novaPaleta[especie.obterCodigo()] = obterCor(especie.obterClasse()).getRGB();
+        }
+        paleta = novaPaleta;
+        redesenharTudo = true;
     }
 
     /**
@@ -182,37 +272,103 @@ public class VisaoSimulador extends JFrame
     }
 
     /**
-     * Mostra o estado atual do campo.
+     * Publica o estado atual do campo, se já tiver passado o intervalo de
+     * um quadro desde a última publicação. O campo é exibido depois, na
+     * thread de eventos do Swing.
      * @param passo Qual iteração do passo está sendo exibida.
      * @param campo O campo cujo estado será exibido.
      */
     public void mostrarStatus(int passo, Campo campo)
     {
+        ultimoPasso = passo;
+        ultimoCampo = campo;
+        if(campo == campoPublicado) {
+            for(int indice = campo.proximaAlterada(0); indice != Campo.NENHUMA;
+                    indice = campo.proximaAlterada(indice + 1)) {
+                pendentes.set(indice);
+            }
+        }
+        long agora = System.nanoTime();
+        if(agora - ultimaPublicacao >= intervaloQuadros) {
+            ultimaPublicacao = agora;
+            publicar(passo, campo);
+        }
+    }
+
+    /**
+     * Copia para um quadro as posições alteradas desde o último quadro
+     * publicado (ou o campo inteiro) e o deixa pronto para ser exibido.
+     * Se o quadro anterior ainda não tiver sido exibido, as alterações são
+     * acrescentadas a ele (e o seu passo não é exibido).
+     */
+    private void publicar(int passo, Campo campo)
+    {
+        long inicio = System.nanoTime();
+        int comprimento = campo.obterComprimento();
+        int largura = campo.obterLargura();
+        Quadro quadro = quadroPronto.getAndSet(null);
+        if(quadro == null) {
+            quadro = quadroLivre.getAndSet(null);
+            if(quadro != null) {
+                quadro.esvaziar();
+            }
+        }
+        if(quadro == null || quadro.comprimento != comprimento || quadro.largura != largura) {
+            quadro = new Quadro(comprimento, largura);
+        }
+
+        int limite = comprimento * largura / FRACAO_QUADRO_COMPLETO;
+        if(campo != campoPublicado || redesenharTudo || quadro.completo
+                || quadro.numAlteracoes + pendentes.cardinality() > limite) {
+            redesenharTudo = false;
+            quadro.completo = true;
+            quadro.numAlteracoes = 0;
+            campo.copiarEspecies(quadro.especies);
+        }
+        else {
+            for(int indice = pendentes.nextSetBit(0); indice >= 0; indice = pendentes.nextSetBit(indice + 1)) {
+                quadro.adicionarAlteracao(indice, campo.obterEspecieEm(indice));
+            }
+        }
+        pendentes.clear();
+        campoPublicado = campo;
+
+        quadro.passo = passo;
+        quadro.metricas = campo.obterMetricas();
+        long inicioEstatisticas = System.nanoTime();
+        estatisticas.reiniciar();
+        quadro.populacao = estatisticas.obterDetalhesPopulacao(campo);
+        quadro.metricas.registrarTempo(FasePasso.PINTURA, inicioEstatisticas - inicio);
+        quadro.metricas.registrarTempo(FasePasso.ESTATISTICAS, System.nanoTime() - inicioEstatisticas);
+        quadroPronto.set(quadro);
+    }
+
+    /**
+     * Exibe o último quadro publicado, se houver um novo.
+     * Executado pelo temporizador, na thread de eventos do Swing.
+     */
+    private void exibirQuadroPronto()
+    {
+        Quadro quadro = quadroPronto.getAndSet(null);
+        if(quadro == null) {
+            return;
+        }
         if(!isVisible()) {
             setVisible(true);
         }
-            
-        rotuloPasso.setText(PREFIXO_PASSO + passo);
-        estatisticas.reiniciar();
-        
-        visaoCampo.prepararPintura();
-
-        for(int linha = 0; linha < campo.obterComprimento(); linha++) {
-            for(int coluna = 0; coluna < campo.obterLargura(); coluna++) {
-                Object animal = campo.obterObjetoEm(linha, coluna);
-                if(animal != null) {
-                    estatisticas.incrementarContagem(animal.getClass());
-                    visaoCampo.desenharMarca(coluna, linha, obterCor(animal.getClass()));
-                }
-                else {
-                    visaoCampo.desenharMarca(coluna, linha, COR_VAZIA);
-                }
-            }
+
+        long inicio = System.nanoTime();
+        rotuloPasso.setText(PREFIXO_PASSO + quadro.passo);
+        if(quadro.completo) {
+            visaoCampo.desenharCampo(quadro.especies, paleta);
         }
-        estatisticas.finalizarContagem();
+        else {
+            visaoCampo.desenharAlteracoes(quadro.indices, quadro.codigos, quadro.numAlteracoes, paleta);
+        }
+        populacao.setText(PREFIXO_POPULACAO + quadro.populacao);
+        quadro.metricas.registrarTempo(FasePasso.PINTURA, System.nanoTime() - inicio);
 
-        populacao.setText(PREFIXO_POPULACAO + estatisticas.obterDetalhesPopulacao(campo));
-        visaoCampo.repaint();
+        quadroLivre.set(quadro);
     }
 
     /**
@@ -224,6 +380,19 @@ public class VisaoSimulador extends JFrame
         return estatisticas.ehViavel(campo);
     }
 
+    /**
+     * Reabilita as opções quando a execução do simulador termina.
+     */
+    public void simulacaoConcluida()
+    {
+        // Garante que o estado final seja exibido.
+        if(ultimoCampo != null) {
+            publicar(ultimoPasso, ultimoCampo);
+            ultimoCampo = null;
+        }
+        SwingUtilities.invokeLater(() -> reabilitarOpcoes());
+    }
+
     /** 
      * Reabilita os botões de simulação 
       */
@@ -246,6 +415,65 @@ public class VisaoSimulador extends JFrame
         botaoReiniciarRandomizador.setEnabled(false);
     }
     
+    /**
+     * O estado do campo em um passo, copiado para ser exibido enquanto a
+     * simulação continua. Um quadro traz o campo inteiro ou apenas as
+     * posições alteradas desde o quadro anterior.
+     */
+    private static class Quadro
+    {
+        private final int comprimento, largura;
+        // Se verdadeiro, o quadro traz todas as posições (em especies); caso
+        // contrário, apenas as alterações (em indices e codigos).
+        private boolean completo;
+        // Os códigos das espécies em cada posição, na ordem dos índices do campo.
+        private final byte[] especies;
+        // Os índices das posições alteradas e os seus novos códigos de espécie.
+        private int[] indices;
+        private byte[] codigos;
+        private int numAlteracoes;
+        private int passo;
+        private String populacao;
+        // As métricas onde registrar o tempo gasto para exibir o quadro.
+        private MetricasSimulacao metricas;
+
+        /**
+         * Cria um quadro vazio para um campo com as dimensões fornecidas.
+         */
+        public Quadro(int comprimento, int largura)
+        {
+            this.comprimento = comprimento;
+            this.largura = largura;
+            especies = new byte[comprimento * largura];
+            indices = new int[64];
+            codigos = new byte[64];
+            esvaziar();
+        }
+
+        /**
+         * Descarta o conteúdo do quadro, para que ele seja reaproveitado.
+         */
+        public void esvaziar()
+        {
+            completo = false;
+            numAlteracoes = 0;
+        }
+
+        /**
+         * Acrescenta uma posição alterada ao quadro.
+         */
+        public void adicionarAlteracao(int indice, byte codigo)
+        {
+            if(numAlteracoes == indices.length) {
+                indices = Arrays.copyOf(indices, indices.length * 2);
+                codigos = Arrays.copyOf(codigos, codigos.length * 2);
+            }
+            indices[numAlteracoes] = indice;
+            codigos[numAlteracoes] = codigo;
+            numAlteracoes++;
+        }
+    }
+
     /**
      * Fornece uma visão gráfica de um campo retangular. Esta é 
      * uma classe aninhada (uma classe definida dentro de outra classe) que
@@ -253,16 +481,20 @@ public class VisaoSimulador extends JFrame
      * componente exibe o campo.
      * Isso é algo mais avançado em GUI - você pode ignorar isso 
      * para o seu projeto, se preferir.
+     * 
+     * O campo é desenhado em uma imagem com um pixel por posição, escrevendo
+     * as cores diretamente no vetor de pixels da imagem. A imagem é ampliada
+     * para o tamanho do componente apenas ao ser copiada para a tela.
      */
     private class VisaoCampo extends JPanel
     {
         private final int FATOR_ESCALA_GRADE = 6;
 
         private int larguraGrade, alturaGrade;
-        private int escalaX, escalaY;
-        Dimension tamanho;
-        private Graphics g;
-        private Image imagemCampo;
+        // A imagem do campo, com um pixel por posição.
+        private BufferedImage imagemCampo;
+        // Os pixels da imagem do campo (um valor RGB por posição, na ordem dos índices).
+        private int[] pixels;
 
         /**
          * Cria um novo componente VisaoCampo.
@@ -271,7 +503,8 @@ public class VisaoSimulador extends JFrame
         {
             alturaGrade = altura;
             larguraGrade = largura;
-            tamanho = new Dimension(0, 0);
+            imagemCampo = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) imagemCampo.getRaster().getDataBuffer()).getData();
         }
 
         /**
@@ -284,52 +517,43 @@ public class VisaoSimulador extends JFrame
         }
 
         /**
-         * Prepara para uma nova rodada de pintura. Como o componente
-         * pode ser redimensionado, calcula novamente o fator de escala.
+         * Desenha o campo na imagem interna e pede que ele seja redesenhado.
+         * @param especies Os códigos das espécies em cada posição, na ordem dos índices.
+         * @param paleta A cor (RGB) de cada código de espécie.
          */
-        public void prepararPintura()
+        public void desenharCampo(byte[] especies, int[] paleta)
         {
-            if(!tamanho.equals(getSize())) {  // se o tamanho mudou...
-                tamanho = getSize();
-                imagemCampo = visaoCampo.createImage(tamanho.width, tamanho.height);
-                g = imagemCampo.getGraphics();
-
-                escalaX = tamanho.width / larguraGrade;
-                if(escalaX < 1) {
-                    escalaX = FATOR_ESCALA_GRADE;
-                }
-                escalaY = tamanho.height / alturaGrade;
-                if(escalaY < 1) {
-                    escalaY = FATOR_ESCALA_GRADE;
-                }
+            for(int indice = 0; indice < pixels.length; indice++) {
+                pixels[indice] = paleta[especies[indice]];
             }
+            repaint();
         }
-        
+
         /**
-         * Pinta uma localização na grade deste campo com uma cor específica.
+         * Redesenha apenas as posições alteradas e pede que o campo seja redesenhado.
+         * @param indices Os índices das posições alteradas.
+         * @param codigos O novo código de espécie de cada posição alterada.
+         * @param quantidade Quantas posições foram alteradas.
+         * @param paleta A cor (RGB) de cada código de espécie.
          */
-        public void desenharMarca(int x, int y, Color cor)
+        public void desenharAlteracoes(int[] indices, byte[] codigos, int quantidade, int[] paleta)
         {
-            g.setColor(cor);
-            g.fillRect(x * escalaX, y * escalaY, escalaX-1, escalaY-1);
+            for(int i = 0; i < quantidade; i++) {
+                pixels[indices[i]] = paleta[codigos[i]];
+            }
+            if(quantidade > 0) {
+                repaint();
+            }
         }
 
         /**
          * O componente VisaoCampo precisa ser redesenhado. Copia a
-         * imagem interna para a tela.
+         * imagem interna para a tela, ampliada para o tamanho do componente.
          */
         public void paintComponent(Graphics g)
         {
-            if(imagemCampo != null) {
-                Dimension tamanhoAtual = getSize();
-                if(tamanho.equals(tamanhoAtual)) {
-                    g.drawImage(imagemCampo, 0, 0, null);
-                }
-                else {
-                    // Redimensiona a imagem anterior.
-                    g.drawImage(imagemCampo, 0, 0, tamanhoAtual.width, tamanhoAtual.height, null);
-                }
-            }
+            super.paintComponent(g);
+            g.drawImage(imagemCampo, 0, 0, getWidth(), getHeight(), null);
         }
     }
-}
\ No newline at end of file
+}